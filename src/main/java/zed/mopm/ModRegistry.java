@@ -8,6 +8,7 @@ import net.minecraftforge.fml.common.event.FMLInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPostInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
 import zed.mopm.gui.events.EventMenuOpened;
+import zed.mopm.gui.utils.FontGeneration;
 import zed.mopm.util.References;
 
 @Mod(
@@ -27,6 +28,7 @@ public class ModRegistry {
     @Mod.EventHandler
     public void modInit(final FMLInitializationEvent init) {
         MinecraftForge.EVENT_BUS.register(EventMenuOpened.class);
+        FontGeneration.register();
     }
 
     @Mod.EventHandler
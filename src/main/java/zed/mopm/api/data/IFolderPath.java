@@ -4,7 +4,7 @@ import java.io.File;
 
 public interface IFolderPath {
     void setPath(String path);
-    void setUniquePath(String path);
-    String getPathToDir();
+    void setFolderId(int folderId);
+    int getFolderId();
     File getMopmSaveFile();
 }
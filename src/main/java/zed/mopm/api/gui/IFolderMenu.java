@@ -5,4 +5,5 @@ import zed.mopm.gui.elements.lists.DirectoryList;
 public interface IFolderMenu {
     DirectoryList getDirectoryList();
     void refreshDirectoryEntryList();
+    void displayDirectoryEntryList();
 }
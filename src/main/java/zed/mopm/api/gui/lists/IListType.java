@@ -1,8 +1,9 @@
 package zed.mopm.api.gui.lists;
 
-import java.util.List;
+import java.util.Collection;
 
 public interface IListType<K> {
     void refresh();
-    void display(List<K> entries);
+    boolean isStale();
+    void display(Collection<K> entries);
 }
@@ -0,0 +1,259 @@
+package zed.mopm.data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes the binary directory catalog (mopm_ssp.dat and
+ * mopm_smp.dat).<br><br>
+ *
+ * <b>Layout:</b><br>
+ * <ul>
+ *     <li>int - {@link #MAGIC}</li>
+ *     <li>short - {@link #VERSION}</li>
+ *     <li>int - the next unused folder id</li>
+ *     <li>int - the number of folders in the node table</li>
+ *     <li>node table - folder id, parent id, name; one row per folder</li>
+ * </ul>
+ *
+ * The base directory is implied and always has the id
+ * {@link #BASE_FOLDER_ID}. Rows are written in pre-order so every parent
+ * is read before its children and sibling order is kept.
+ */
+public final class CatalogFormat {
+
+    //-----Consts:--------------------------------------//
+
+    /**
+     * Marks a file as a binary mopm catalog ("MOPM").
+     */
+    public static final int MAGIC = 0x4D4F504D;
+    /**
+     * The current version of the catalog layout.
+     */
+    public static final short VERSION = 1;
+    /**
+     * The folder id of the base directory.
+     */
+    public static final int BASE_FOLDER_ID = 0;
+
+    /**
+     * The suffix of the temporary file written before replacing a catalog.
+     */
+    private static final String TMP_SUFFIX = "_tmp";
+
+    //-----Constructors:--------------------------------//
+
+    /**
+     * This should not be accessed.
+     */
+    private CatalogFormat() { }
+
+    //-----This:----------------------------------------//
+
+    /**
+     * @param file The file to check.
+     * @return Returns true if the file starts with the catalog header.<br>
+     * Returns false if the file is missing, too short or a legacy text file.
+     */
+    public static boolean isCatalog(final File file) {
+        try (
+                DataInputStream reader =
+                        new DataInputStream(
+                                new FileInputStream(file)
+                        )
+        ) {
+            return reader.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads a catalog into an empty base directory in a single buffered pass.
+     * @param readFrom The catalog file.
+     * @param base The base directory to populate.
+     * @param <K> The entry type of the directory tree.
+     * @throws IOException Thrown if the file is not a readable catalog.
+     */
+    public static <K> void read(
+            final File readFrom,
+            final DirectoryTree<K> base
+    ) throws IOException {
+        try (
+                DataInputStream reader =
+                        new DataInputStream(
+                                new BufferedInputStream(
+                                        new FileInputStream(readFrom)
+                                )
+                        )
+        ) {
+            if (reader.readInt() != MAGIC) {
+                throw new IOException("Not a mopm catalog: " + readFrom);
+            }
+            final short version = reader.readShort();
+            if (version > VERSION) {
+                throw new IOException("Unsupported catalog version " + version);
+            }
+
+            final int nextFolderId = reader.readInt();
+            final int nodeCount = reader.readInt();
+            final Map<Integer, DirectoryTree<K>> folders =
+                    new HashMap<>(nodeCount * 2 + 1);
+            folders.put(BASE_FOLDER_ID, base);
+
+            for (int i = 0; i < nodeCount; i++) {
+                final int folderId = reader.readInt();
+                final int parentId = reader.readInt();
+                final String name = reader.readUTF();
+                final DirectoryTree<K> parent = folders.get(parentId);
+                if (parent == null) {
+                    throw new IOException(
+                            "Folder " + folderId + " has no parent " + parentId
+                    );
+                }
+                folders.put(folderId, parent.attachFolder(name, folderId));
+            }
+            base.reserveFolderIds(nextFolderId);
+        }
+    }
+
+    /**
+     * Writes the directory tree as a catalog.
+     * @param writeTo The catalog file.
+     * @param base The base directory to write.
+     * @param <K> The entry type of the directory tree.
+     * @throws IOException Thrown if the catalog could not be written.
+     */
+    public static <K> void write(
+            final File writeTo,
+            final DirectoryTree<K> base
+    ) throws IOException {
+        write(writeTo, capture(base));
+    }
+
+    /**
+     * Writes a captured node table as a catalog. The catalog is written to
+     * a temporary file first and then moved over the old catalog.
+     * @param writeTo The catalog file.
+     * @param snapshot The node table to write.
+     * @throws IOException Thrown if the catalog could not be written.
+     */
+    public static void write(
+            final File writeTo,
+            final Snapshot snapshot
+    ) throws IOException {
+        final File tmp = new File(writeTo.getPath() + TMP_SUFFIX);
+        try (
+                DataOutputStream writer =
+                        new DataOutputStream(
+                                new BufferedOutputStream(
+                                        new FileOutputStream(tmp)
+                                )
+                        )
+        ) {
+            writer.writeInt(MAGIC);
+            writer.writeShort(VERSION);
+            writer.writeInt(snapshot.nextFolderId);
+            writer.writeInt(snapshot.names.length);
+            for (int i = 0; i < snapshot.names.length; i++) {
+                writer.writeInt(snapshot.folderIds[i]);
+                writer.writeInt(snapshot.parentIds[i]);
+                writer.writeUTF(snapshot.names[i]);
+            }
+        }
+
+        Files.move(
+                tmp.toPath(),
+                writeTo.toPath(),
+                StandardCopyOption.REPLACE_EXISTING
+        );
+    }
+
+    /**
+     * Copies the node table of a directory tree so it can be written off
+     * the client thread.
+     * @param base The base directory to capture.
+     * @param <K> The entry type of the directory tree.
+     * @return Returns the captured node table.
+     */
+    public static <K> Snapshot capture(final DirectoryTree<K> base) {
+        final int nodeCount = base.countFolders();
+        final Snapshot snapshot = new Snapshot(base.nextFolderId(), nodeCount);
+
+        final Deque<DirectoryTree<K>> order = new ArrayDeque<>();
+        pushChildren(order, base);
+        for (int i = 0; !order.isEmpty(); i++) {
+            final DirectoryTree<K> folder = order.pop();
+            snapshot.folderIds[i] = folder.getFolderId();
+            snapshot.parentIds[i] = folder.getParent().getFolderId();
+            snapshot.names[i] = folder.displayName();
+            pushChildren(order, folder);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Pushes the subdirectories of a directory so they pop in list order.
+     * @param order The traversal stack.
+     * @param folder The directory whose subdirectories are pushed.
+     * @param <K> The entry type of the directory tree.
+     */
+    private static <K> void pushChildren(
+            final Deque<DirectoryTree<K>> order,
+            final DirectoryTree<K> folder
+    ) {
+        for (int i = folder.folders() - 1; i >= 0; i--) {
+            order.push(folder.stepDown(i));
+        }
+    }
+
+    //-----Snapshot:------------------------------------//
+
+    /**
+     * An immutable copy of a catalog's node table.
+     */
+    public static final class Snapshot {
+
+        /**
+         * The next unused folder id.
+         */
+        private final int nextFolderId;
+        /**
+         * The folder id of every row.
+         */
+        private final int[] folderIds;
+        /**
+         * The parent folder id of every row.
+         */
+        private final int[] parentIds;
+        /**
+         * The folder name of every row.
+         */
+        private final String[] names;
+
+        /**
+         * Creates an empty node table.
+         * @param nextFolderIdIn The next unused folder id.
+         * @param nodeCount The number of rows.
+         */
+        private Snapshot(final int nextFolderIdIn, final int nodeCount) {
+            this.nextFolderId = nextFolderIdIn;
+            this.folderIds = new int[nodeCount];
+            this.parentIds = new int[nodeCount];
+            this.names = new String[nodeCount];
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package zed.mopm.data;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.world.storage.WorldSummary;
+import zed.mopm.util.BackgroundIO;
+import zed.mopm.util.MOPMLiterals;
+import zed.mopm.util.References;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads the directory catalogs and scans the saves directory in the
+ * background while the game finishes starting up. The selection menus
+ * take the loaded catalogs when they are first opened; opening a menu
+ * before the warm up has finished waits for it.
+ */
+public final class CatalogWarmup {
+
+    //-----Consts:--------------------------------------//
+
+    /**
+     * The catalogs loaded by the warm up, keyed by catalog file name.
+     */
+    private static final Map<String, DirectoryTree<?>> CATALOGS =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Completes once both catalogs have been loaded.
+     */
+    private static CompletableFuture<Void> catalogs;
+    /**
+     * The scan of the saves directory started by the warm up.
+     */
+    private static CompletableFuture<List<WorldSummary>> worldScan;
+
+    //-----Constructors:--------------------------------//
+
+    /**
+     * This should not be accessed.
+     */
+    private CatalogWarmup() { }
+
+    //-----This:----------------------------------------//
+
+    /**
+     * Starts loading the catalogs and scanning the saves directory.
+     */
+    public static synchronized void start() {
+        if (catalogs != null) {
+            return;
+        }
+
+        final File gameDir = Minecraft.getMinecraft().gameDir;
+        worldScan = WorldScanner.scan();
+        catalogs = CompletableFuture.allOf(
+                loadAsync(new File(gameDir, MOPMLiterals.MOPM_SSP)),
+                loadAsync(new File(gameDir, MOPMLiterals.MOPM_SMP))
+        );
+    }
+
+    /**
+     * Waits for the catalogs to finish loading.
+     */
+    public static void await() {
+        final CompletableFuture<Void> loading;
+        synchronized (CatalogWarmup.class) {
+            loading = catalogs;
+        }
+        if (loading == null || loading.isDone()) {
+            return;
+        }
+
+        References.LOG.info("Waiting for the mopm catalogs to load.");
+        try {
+            loading.join();
+        } catch (RuntimeException e) {
+            References.LOG.error("Unable to warm up the catalogs: ", e);
+        }
+    }
+
+    /**
+     * Takes the catalog the warm up loaded for a file. A catalog can only be
+     * taken once; afterwards, or if the warm up did not load it, the
+     * catalog is loaded on the calling thread.
+     * @param catalogFile The catalog file.
+     * @param <K> The entry type of the directory tree.
+     * @return Returns the loaded base directory.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K> DirectoryTree<K> takeCatalog(final File catalogFile) {
+        await();
+        final DirectoryTree<K> loaded =
+                (DirectoryTree<K>) CATALOGS.remove(catalogFile.getName());
+        if (loaded != null) {
+            return loaded;
+        }
+
+        final DirectoryTree<K> base =
+                new DirectoryTree<>(MOPMLiterals.BASE_DIR_NAME);
+        base.load(catalogFile);
+        return base;
+    }
+
+    /**
+     * Takes the saves directory scan started by the warm up.
+     * @return Returns the scan, or null if it was already taken.
+     */
+    public static synchronized CompletableFuture<List<WorldSummary>>
+            takeWorldScan() {
+        final CompletableFuture<List<WorldSummary>> scan = worldScan;
+        worldScan = null;
+        return scan;
+    }
+
+    /**
+     * Loads a catalog on the I/O thread.
+     * @param catalogFile The catalog file.
+     * @return Returns a future that completes once the catalog is loaded.
+     */
+    private static CompletableFuture<Void> loadAsync(final File catalogFile) {
+        return CompletableFuture.runAsync(() -> {
+            final DirectoryTree<?> base =
+                    new DirectoryTree<>(MOPMLiterals.BASE_DIR_NAME);
+            base.load(catalogFile);
+            CATALOGS.put(catalogFile.getName(), base);
+        }, BackgroundIO::execute);
+    }
+}
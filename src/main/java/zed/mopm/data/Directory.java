@@ -8,11 +8,12 @@ import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.util.ResourceLocation;
 import zed.mopm.api.data.IDrawableListEntry;
 import zed.mopm.gui.utils.ColorUtils;
+import zed.mopm.gui.utils.FontGeneration;
 import zed.mopm.gui.utils.GuiUtils;
 import zed.mopm.gui.utils.constants.MenuConsts;
 import zed.mopm.util.References;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static zed.mopm.gui.utils.constants.ColorConsts.COLOR_MAX;
@@ -129,6 +130,32 @@ public class Directory
     private static final ResourceLocation ICON_TRASH
             = new ResourceLocation(References.MODID, TRASH_ICO);
 
+    /**
+     * The name as it was last drawn, trimmed to fit the list. This is the
+     * same string as the directory name if it did not need trimming.
+     */
+    private String displayName;
+    /**
+     * The directory name the display name was built from.
+     */
+    private String displayedFrom;
+    /**
+     * The list width the display name was built for.
+     */
+    private int displayedWidth;
+    /**
+     * The font generation the display name was measured under.
+     */
+    private int displayedGeneration;
+    /**
+     * The width of the untrimmed directory name.
+     */
+    private int nameWidth;
+    /**
+     * The tool tip showing the untrimmed directory name.
+     */
+    private List<String> toolTip;
+
     //-----Constructors:--------------------------------//
 
     /**
@@ -197,23 +224,20 @@ public class Directory
             final float partialTicks
     ) {
         FontRenderer renderer = Minecraft.getMinecraft().fontRenderer;
-        String display = dirName;
 
         this.width = listWidth;
         this.xLoc = x;
         this.yLoc = y;
-        int stringWidth = renderer.getStringWidth(display);
-        boolean isLong = stringWidth > listWidth;
+        this.updateDisplay(renderer, listWidth);
+        boolean isLong = this.displayName != this.dirName;
 
         //:: Draws the directory string
-        if (isLong) {
-            int trimWidth =
-                    listWidth
-                    - renderer.getStringWidth(ELLIPSES)
-                    - renderer.getStringWidth(STR_PADDING);
-            display = renderer.trimStringToWidth(display, trimWidth) + ELLIPSES;
-        }
-        renderer.drawString(display, x + TEXT_X_Y, y + TEXT_X_Y, PURE_WHITE);
+        renderer.drawString(
+                this.displayName,
+                x + TEXT_X_Y,
+                y + TEXT_X_Y,
+                PURE_WHITE
+        );
         int j = mouseX - x;
         int i = j < TRASH_DIM ? TRASH_DIM : 0;
 
@@ -249,14 +273,12 @@ public class Directory
 
             //:: Draw tool tip for long strings
             if (isLong) {
-                List<String> toolTip = new ArrayList<>();
-                toolTip.add(dirName);
                 GuiUtils.drawToolTip(
                         renderer,
-                        toolTip,
+                        this.toolTip,
                         x + listWidth,
                         y,
-                        stringWidth,
+                        this.nameWidth,
                         slotHeight
                 );
             }
@@ -348,6 +370,42 @@ public class Directory
         return this.uniqueDirName;
     }
 
+    /**
+     * Builds the display name again if the directory name, the list width
+     * or the font changed since it was last built. Otherwise drawing the
+     * directory measures no text.
+     * @param renderer The font renderer the name is drawn with.
+     * @param listWidth The width of the containing list.
+     */
+    private void updateDisplay(
+            final FontRenderer renderer,
+            final int listWidth
+    ) {
+        final int generation = FontGeneration.current();
+        if (this.displayName != null
+                && this.displayedFrom == this.dirName
+                && this.displayedWidth == listWidth
+                && this.displayedGeneration == generation) {
+            return;
+        }
+
+        this.displayedFrom = this.dirName;
+        this.displayedWidth = listWidth;
+        this.displayedGeneration = generation;
+        this.nameWidth = renderer.getStringWidth(this.dirName);
+        this.displayName = this.dirName;
+        if (this.nameWidth > listWidth) {
+            final int trimWidth =
+                    listWidth
+                    - renderer.getStringWidth(ELLIPSES)
+                    - renderer.getStringWidth(STR_PADDING);
+            this.displayName =
+                    renderer.trimStringToWidth(this.dirName, trimWidth)
+                            + ELLIPSES;
+            this.toolTip = Collections.singletonList(this.dirName);
+        }
+    }
+
     /**
      * Sets the name of the directory.
      * @param name The new name of the directory.
@@ -0,0 +1,305 @@
+package zed.mopm.data;
+
+import zed.mopm.util.BackgroundIO;
+import zed.mopm.util.MOPMLiterals;
+import zed.mopm.util.References;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An append-only log of the changes made to a directory catalog since it
+ * was last written in full. Every folder creation, rename, move and
+ * removal is appended as a small record on the I/O thread. Once the log
+ * grows past {@link #COMPACT_THRESHOLD} bytes the catalog is rewritten and
+ * the log is emptied.<br><br>
+ *
+ * Replaying a record that was already folded into the catalog has no
+ * effect, so a crash between rewriting the catalog and emptying the log
+ * does not corrupt the tree.
+ */
+public class DirectoryJournal {
+
+    //-----Consts:--------------------------------------//
+
+    /**
+     * Record type of a created folder: id, parent id, name.
+     */
+    private static final byte NEW_FOLDER = 1;
+    /**
+     * Record type of a renamed folder: id, name.
+     */
+    private static final byte RENAME_DIR = 2;
+    /**
+     * Record type of a removed folder: id.
+     */
+    private static final byte REMOVE_DIR = 3;
+    /**
+     * Record type of a moved folder: id, new parent id.
+     */
+    private static final byte MOVE_DIR = 4;
+
+    /**
+     * The size in bytes after which the journal is folded into the catalog.
+     */
+    private static final long COMPACT_THRESHOLD = 64L * 1024L;
+    /**
+     * The starting size of a record buffer.
+     */
+    private static final int RECORD_SIZE = 32;
+
+    //-----Fields:--------------------------------------//
+
+    /**
+     * The catalog the journal belongs to.
+     */
+    private final File catalogFile;
+    /**
+     * The journal file.
+     */
+    private final File journalFile;
+    /**
+     * The number of bytes appended since the catalog was last written.
+     */
+    private long journalSize;
+
+    //-----Constructors:--------------------------------//
+
+    /**
+     * Creates the journal that belongs to a catalog file.
+     * @param catalog The catalog file.
+     */
+    public DirectoryJournal(final File catalog) {
+        this.catalogFile = catalog;
+        this.journalFile = new File(
+                catalog.getPath() + MOPMLiterals.JOURNAL_SUFFIX
+        );
+        this.journalSize = this.journalFile.length();
+    }
+
+    //-----This:----------------------------------------//
+
+    /**
+     * Applies every record in the journal to a freshly loaded catalog.
+     * A record cut short by a crash ends the replay.
+     * @param base The base directory of the loaded catalog.
+     * @param <K> The entry type of the directory tree.
+     * @throws IOException Thrown if the journal could not be read.
+     */
+    public final <K> void replay(final DirectoryTree<K> base)
+            throws IOException {
+        if (!this.journalFile.isFile()) {
+            return;
+        }
+
+        final Map<Integer, DirectoryTree<K>> folders = new HashMap<>();
+        base.indexFolders(folders);
+
+        try (
+                DataInputStream reader =
+                        new DataInputStream(
+                                new BufferedInputStream(
+                                        new FileInputStream(this.journalFile)
+                                )
+                        )
+        ) {
+            while (true) {
+                final int type = reader.read();
+                if (type == -1) {
+                    break;
+                }
+                final int folderId = reader.readInt();
+                final DirectoryTree<K> folder = folders.get(folderId);
+
+                switch (type) {
+                    case NEW_FOLDER:
+                        final DirectoryTree<K> parent =
+                                folders.get(reader.readInt());
+                        final String name = reader.readUTF();
+                        if (folder == null && parent != null) {
+                            folders.put(
+                                    folderId,
+                                    parent.attachFolder(name, folderId)
+                            );
+                        }
+                        break;
+
+                    case RENAME_DIR:
+                        final String rename = reader.readUTF();
+                        if (folder != null && folder.getParent() != null) {
+                            folder.getParent().renameDir(folder, rename);
+                        }
+                        break;
+
+                    case REMOVE_DIR:
+                        if (folder != null && folder.getParent() != null) {
+                            folder.getParent()
+                                    .removeDir(folder.getUniqueName());
+                            folders.remove(folderId);
+                        }
+                        break;
+
+                    case MOVE_DIR:
+                        final DirectoryTree<K> moveTo =
+                                folders.get(reader.readInt());
+                        if (folder != null
+                                && folder.getParent() != null
+                                && moveTo != null) {
+                            folder.getParent().reparent(folder, moveTo);
+                        }
+                        break;
+
+                    default:
+                        throw new IOException("Unknown journal record " + type);
+                }
+            }
+        } catch (EOFException e) {
+            References.LOG.warn(
+                    "Ignoring the unfinished record at the end of "
+                            + this.journalFile.getName()
+            );
+        }
+    }
+
+    /**
+     * Deletes the journal. This is used when the catalog is rebuilt from
+     * scratch and the old records no longer apply.
+     */
+    public final void discard() {
+        this.journalSize = 0;
+        if (this.journalFile.exists() && !this.journalFile.delete()) {
+            References.LOG.warn("Could not delete " + this.journalFile);
+        }
+    }
+
+    /**
+     * Records a newly created folder.
+     * @param folder The new folder.
+     */
+    public final void newFolder(final DirectoryTree<?> folder) {
+        final ByteArrayOutputStream bytes = record(NEW_FOLDER, folder);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(folder.getParent().getFolderId());
+            out.writeUTF(folder.displayName());
+        } catch (IOException e) {
+            References.LOG.error("", e);
+        }
+        this.append(bytes.toByteArray(), folder);
+    }
+
+    /**
+     * Records a renamed folder.
+     * @param folder The renamed folder.
+     */
+    public final void renameDir(final DirectoryTree<?> folder) {
+        final ByteArrayOutputStream bytes = record(RENAME_DIR, folder);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(folder.displayName());
+        } catch (IOException e) {
+            References.LOG.error("", e);
+        }
+        this.append(bytes.toByteArray(), folder);
+    }
+
+    /**
+     * Records a moved folder. The folders below it move along with it
+     * and do not need their own records.
+     * @param folder The moved folder, already in its new parent.
+     */
+    public final void moveDir(final DirectoryTree<?> folder) {
+        final ByteArrayOutputStream bytes = record(MOVE_DIR, folder);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(folder.getParent().getFolderId());
+        } catch (IOException e) {
+            References.LOG.error("", e);
+        }
+        this.append(bytes.toByteArray(), folder);
+    }
+
+    /**
+     * Records a removed folder. The folders below it do not need their
+     * own records.
+     * @param folder The folder that is being removed.
+     */
+    public final void removeDir(final DirectoryTree<?> folder) {
+        this.append(record(REMOVE_DIR, folder).toByteArray(), folder);
+    }
+
+    /**
+     * Writes the whole catalog in the background and empties the journal.
+     * The node table is captured now, so changes made afterwards land in
+     * the new journal.
+     * @param base The base directory of the catalog.
+     */
+    public final void compact(final DirectoryTree<?> base) {
+        final CatalogFormat.Snapshot snapshot = CatalogFormat.capture(base);
+        this.journalSize = 0;
+        BackgroundIO.execute(() -> {
+            try {
+                CatalogFormat.write(this.catalogFile, snapshot);
+                if (this.journalFile.exists() && !this.journalFile.delete()) {
+                    References.LOG.warn("Could not delete " + this.journalFile);
+                }
+            } catch (IOException e) {
+                References.LOG.error("Unable to compact the catalog: ", e);
+            }
+        });
+    }
+
+    /**
+     * Starts a record with its type and folder id.
+     * @param type The record type.
+     * @param folder The folder the record is about.
+     * @return Returns the record buffer.
+     */
+    private static ByteArrayOutputStream record(
+            final byte type,
+            final DirectoryTree<?> folder
+    ) {
+        final ByteArrayOutputStream bytes =
+                new ByteArrayOutputStream(RECORD_SIZE);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(type);
+            out.writeInt(folder.getFolderId());
+        } catch (IOException e) {
+            References.LOG.error("", e);
+        }
+        return bytes;
+    }
+
+    /**
+     * Appends a finished record on the I/O thread and compacts the
+     * journal once it is large enough.
+     * @param recordBytes The record to append.
+     * @param folder Any folder of the catalog.
+     */
+    private void append(
+            final byte[] recordBytes,
+            final DirectoryTree<?> folder
+    ) {
+        BackgroundIO.execute(() -> {
+            try (
+                    FileOutputStream out =
+                            new FileOutputStream(this.journalFile, true)
+            ) {
+                out.write(recordBytes);
+            } catch (IOException e) {
+                References.LOG.error("Unable to append to the journal: ", e);
+            }
+        });
+
+        this.journalSize += recordBytes.length;
+        if (this.journalSize > COMPACT_THRESHOLD) {
+            this.compact(folder.getBase());
+        }
+    }
+}
@@ -1,25 +1,24 @@
 package zed.mopm.data;
 
-import com.google.common.collect.Lists;
 import net.minecraft.client.AnvilConverterException;
-import net.minecraft.client.Minecraft;
 import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
-import net.minecraft.world.storage.ISaveFormat;
 import net.minecraft.world.storage.WorldSummary;
 import zed.mopm.gui.elements.lists.ServerSaveLoadUtils;
 import zed.mopm.util.MOPMLiterals;
+import zed.mopm.util.PathFormatter;
 import zed.mopm.util.References;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.FileNotFoundException;
-import java.io.DataOutputStream;
-import java.io.FileOutputStream;
 import java.io.BufferedReader;
 import java.io.FileReader;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.Map;
 import java.util.List;
 import java.util.Deque;
@@ -38,12 +37,8 @@ public class DirectoryTree<K> {
     //-----Fields:--------------------------------------//
 
     /**
-     * Represents the layer of depth this directory is located
-     * in.
-     */
-    private int depth;
-    /**
-     * This is the index of this directory within the list of leaves.
+     * This is the slot of this directory within its parent's
+     * subdirectories.
      */
     private int index;
     /**
@@ -54,19 +49,56 @@ public class DirectoryTree<K> {
      * The unique identifying name of this directory.
      */
     private String uniqueName;
+    /**
+     * The stable id of this directory within the catalog. Unlike the
+     * unique name, this never changes once the directory is created.
+     */
+    private int folderId;
+    /**
+     * The next unused folder id. This is only tracked by the base directory.
+     */
+    private int nextFolderId;
+    /**
+     * The directory this directory is contained in. The base directory
+     * does not have a parent.
+     */
+    private DirectoryTree<K> parent;
 
     /**
-     * The list of server or world entries this directory contains.
+     * The server or world entries this directory contains, in the order
+     * they were added. Entries are hashed on their identity, so adding or
+     * removing one does not scan the others.
      */
-    private List<K> entries;
+    private Set<K> entries;
     /**
      * The list of directories this directory contains.
      */
     private List<Directory> directoryLeaves;
     /**
-     * The navigational structure in relation to this directory.
+     * The subdirectories of this directory, indexed by the number at the
+     * end of their unique names. A removed subdirectory leaves a null
+     * tombstone behind so the other subdirectories keep their slots.
+     */
+    private List<DirectoryTree<K>> navTree;
+    /**
+     * The number of tombstones in the navigational structure.
+     */
+    private int tombstones;
+    /**
+     * The list entry that shows this directory in its parent. The base
+     * directory does not have one.
+     */
+    private Directory leaf;
+    /**
+     * The journal folder changes are appended to. Only the base directory
+     * of a loaded catalog has a journal.
      */
-    private Map<String, DirectoryTree<K>> navTree;
+    private DirectoryJournal journal;
+    /**
+     * Every directory of the tree keyed by folder id. This is only kept
+     * by the base directory and is built the first time it is needed.
+     */
+    private Map<Integer, DirectoryTree<K>> folderIndex;
 
     //-----Constructors:--------------------------------//
 
@@ -75,68 +107,79 @@ public class DirectoryTree<K> {
      * @param nameIn The name of the containing directory.
      */
     public DirectoryTree(final String nameIn) {
-        navTree = new HashMap<>();
+        navTree = new ArrayList<>();
         directoryLeaves = new ArrayList<>();
-        entries = new ArrayList<>();
+        entries = new LinkedHashSet<>();
 
         this.name = nameIn;
         this.uniqueName = nameIn + "#0";
-        this.depth = 0;
         this.index = 0;
+        this.folderId = CatalogFormat.BASE_FOLDER_ID;
+        this.nextFolderId = CatalogFormat.BASE_FOLDER_ID + 1;
     }
 
     /**
      * Creates a new directory that will be contained within another directory.
      * @param nameIn The name of the new directory.
-     * @param depthIn The depth of the new directory.
      * @param indexIn The list index of the new directory.
+     * @param folderIdIn The stable id of the new directory.
      */
     private DirectoryTree(
             final String nameIn,
-            final int depthIn,
-            final int indexIn
+            final int indexIn,
+            final int folderIdIn
     ) {
         this(nameIn);
         this.index = indexIn;
         this.uniqueName = nameIn + "#" + index;
-        this.depth = depthIn;
+        this.folderId = folderIdIn;
     }
 
+    //-----Builders:------------------------------------//
+
     /**
-     * Creates a deep copy of a DirectoryTree passed to it.
-     * @param copyFrom The DirectoryTree to copy from.
+     * Creates a new directory in the called upon directory.
+     *
+     * @param nameIn The name of the new directory.
+     * @return Returns the newly created directory.
      */
-    public DirectoryTree(final DirectoryTree<K> copyFrom) {
-        this(copyFrom.name, copyFrom.depth, copyFrom.index);
-
-        this.entries = Lists.newArrayList(copyFrom.entries);
-        this.directoryLeaves = Lists.newArrayList(copyFrom.directoryLeaves);
-
-        for (String key : copyFrom.navTree.keySet()) {
-            this.navTree.put(
-                    key,
-                    new DirectoryTree(copyFrom.navTree.get(key)
-                    )
-            );
+    public DirectoryTree<K> newFolder(final String nameIn) {
+        final DirectoryTree<K> base = this.getBase();
+        final DirectoryTree<K> newFolder =
+                attachFolder(nameIn, base.nextFolderId);
+        if (base.journal != null) {
+            base.journal.newFolder(newFolder);
         }
+        return newFolder;
     }
 
-    //-----Builders:------------------------------------//
-
     /**
-     * Creates a new directory in the called upon directory.
+     * Creates a new directory with a known folder id in the called upon
+     * directory. This is used when reading the catalog back from disk.
      *
      * @param nameIn The name of the new directory.
+     * @param folderIdIn The stable id of the new directory.
      * @return Returns the newly created directory.
      */
-    public DirectoryTree<K> newFolder(final String nameIn) {
-        DirectoryTree<K> newFolder = new DirectoryTree(
+    final DirectoryTree<K> attachFolder(
+            final String nameIn,
+            final int folderIdIn
+    ) {
+        DirectoryTree<K> newFolder = new DirectoryTree<>(
                 nameIn,
-                depth + 1,
-                this.navTree.size()
+                this.navTree.size(),
+                folderIdIn
         );
-        navTree.put(newFolder.uniqueName, newFolder);
-        directoryLeaves.add(new Directory(nameIn, newFolder.uniqueName));
+        newFolder.parent = this;
+        newFolder.leaf = new Directory(nameIn, newFolder.uniqueName);
+        navTree.add(newFolder);
+        directoryLeaves.add(newFolder.leaf);
+
+        final DirectoryTree<K> base = this.getBase();
+        base.reserveFolderIds(folderIdIn + 1);
+        if (base.folderIndex != null) {
+            base.folderIndex.put(folderIdIn, newFolder);
+        }
         return newFolder;
     }
 
@@ -152,6 +195,19 @@ public class DirectoryTree<K> {
         return this;
     }
 
+    /**
+     * Removes every entry from this directory and all of its
+     * subdirectories. The folders themselves are kept.
+     */
+    public void clearEntries() {
+        this.entries.clear();
+        for (final DirectoryTree<K> folder : this.navTree) {
+            if (folder != null) {
+                folder.clearEntries();
+            }
+        }
+    }
+
     //-----Navigation:----------------------------------//
 
     /**
@@ -160,16 +216,32 @@ public class DirectoryTree<K> {
      * the called upon directory.
      */
     public DirectoryTree<K> stepDown(final int indexIn) {
-        return navTree.get(this.directoryLeaves.get(indexIn).dirUUID());
+        return stepDown(this.directoryLeaves.get(indexIn).dirUUID());
     }
 
     /**
      * @param nameIn The directory that is being searched for.
      * @return Returns the subdirectory with the name 'name' within
-     * the called upon directory.
+     * the called upon directory, or null if there is none.
      */
     public DirectoryTree<K> stepDown(final String nameIn) {
-        return navTree.get(nameIn);
+        final int slot;
+        try {
+            slot = Integer.parseInt(
+                    nameIn.substring(nameIn.lastIndexOf('#') + 1)
+            );
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        if (slot < 0 || slot >= this.navTree.size()) {
+            return null;
+        }
+        final DirectoryTree<K> folder = this.navTree.get(slot);
+        if (folder == null || !folder.uniqueName.equals(nameIn)) {
+            return null;
+        }
+        return folder;
     }
 
     /**
@@ -181,9 +253,8 @@ public class DirectoryTree<K> {
         DirectoryTree<K> current = this;
         if (!pathIn.isEmpty()) {
             for (String part : pathIn.split("/")) {
-                if (current.navTree.containsKey(part)) {
-                    current = current.navTree.get(part);
-                } else {
+                current = current.stepDown(part);
+                if (current == null) {
                     throw new NoSuchElementException();
                 }
             }
@@ -193,27 +264,57 @@ public class DirectoryTree<K> {
     }
 
     /**
-     * Gets The directory at index i.
-     * @param i index
-     * @return returns the directory at i
+     * Finds a directory anywhere in the tree by its folder id.
+     * @param folderIdIn The stable id of the directory.
+     * @return Returns the directory with the folder id.
+     * @throws NoSuchElementException Thrown if no directory has the id.
      */
-    public Directory getDirectory(final int i) {
-        return directoryLeaves.get(i);
+    public DirectoryTree<K> folderById(final int folderIdIn) {
+        final DirectoryTree<K> base = this.getBase();
+        if (base.folderIndex == null) {
+            base.folderIndex = new HashMap<>();
+            base.indexFolders(base.folderIndex);
+        }
+
+        final DirectoryTree<K> folder = base.folderIndex.get(folderIdIn);
+        if (folder == null) {
+            throw new NoSuchElementException();
+        }
+        return folder;
+    }
+
+    /**
+     * Looks up the folder id of a directory from the unique path older
+     * versions stored for each entry.
+     * @param uniquePath The unique path, starting with the base directory.
+     * @return Returns the folder id of the directory at the end of the
+     * path, or the base directory's id if the path no longer exists.
+     */
+    public int resolvePath(final String uniquePath) {
+        try {
+            return this.getBase()
+                    .folderPath(PathFormatter.ensurePathFormat(uniquePath))
+                    .folderId;
+        } catch (NoSuchElementException e) {
+            return CatalogFormat.BASE_FOLDER_ID;
+        }
     }
 
     /**
-     * Returns the entry of the current directory located in i.
+     * Gets The directory at index i.
      * @param i index
-     * @return returns the entry at i
+     * @return returns the directory at i
      */
-    public K getEntry(final int i) {
-        return this.entries.get(i);
+    public Directory getDirectory(final int i) {
+        return directoryLeaves.get(i);
     }
 
     /**
-     * @return Returns the list of directory entries in this directory.
+     * @return Returns the entries in this directory in the order they were
+     * added. Removing from the returned collection removes the entry from
+     * the directory.
      */
-    public List<K> getEntries() {
+    public Collection<K> getEntries() {
         return this.entries;
     }
 
@@ -222,6 +323,77 @@ public class DirectoryTree<K> {
     //:: Getters
     //:::::::::::::::::::::::::::::://
 
+    /**
+     * @return Returns the stable id of the called upon directory.
+     */
+    public int getFolderId() {
+        return this.folderId;
+    }
+
+    /**
+     * @return Returns the directory containing the called upon directory,
+     * or null if this is the base directory.
+     */
+    public DirectoryTree<K> getParent() {
+        return this.parent;
+    }
+
+    /**
+     * @return Returns the base directory of the tree the called upon
+     * directory belongs to.
+     */
+    final DirectoryTree<K> getBase() {
+        DirectoryTree<K> current = this;
+        while (current.parent != null) {
+            current = current.parent;
+        }
+        return current;
+    }
+
+    /**
+     * @return Returns the next folder id that will be handed out.
+     */
+    final int nextFolderId() {
+        return this.getBase().nextFolderId;
+    }
+
+    /**
+     * Makes sure that no folder id below the given id is handed out again.
+     * @param folderIdIn The lowest id that may still be handed out.
+     */
+    final void reserveFolderIds(final int folderIdIn) {
+        final DirectoryTree<K> base = this.getBase();
+        base.nextFolderId = Math.max(base.nextFolderId, folderIdIn);
+    }
+
+    /**
+     * @return Returns the number of directories below the called upon
+     * directory, counting every branch.
+     */
+    final int countFolders() {
+        int count = this.folders();
+        for (DirectoryTree<K> child : this.navTree) {
+            if (child != null) {
+                count += child.countFolders();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds the called upon directory and every directory below it to a
+     * folder id lookup.
+     * @param folders The lookup to fill.
+     */
+    final void indexFolders(final Map<Integer, DirectoryTree<K>> folders) {
+        folders.put(this.folderId, this);
+        for (DirectoryTree<K> child : this.navTree) {
+            if (child != null) {
+                child.indexFolders(folders);
+            }
+        }
+    }
+
     /**
      * Returns the name of the called upon directory.
      * Do not use this method to get the name of a directory if the name
@@ -254,8 +426,9 @@ public class DirectoryTree<K> {
      *  <li>Directory 2#1</li>
      * </ul>
      *
-     * The corresponding numbers are the index in which they appear in
-     * the list of directoryLeaves.
+     * The corresponding numbers are the slot the directory holds in its
+     * parent. Slots stay put when a sibling is removed and are only
+     * renumbered once enough removed slots have piled up.
      *
      * @return Returns the unique name of the directory.
      */
@@ -278,12 +451,18 @@ public class DirectoryTree<K> {
      * - directory3<b>[depth 3]</b><br><br>
      *
      * This method will return the placement in the path of the called
-     * upon directory.
+     * upon directory. The depth is counted from the parent links rather
+     * than stored, so moving a directory does not have to update the
+     * directories below it.
      *
      * @return Returns the subdirectory count.
      */
     public int getDepth() {
-        return this.depth;
+        int depthCount = 0;
+        for (DirectoryTree<K> up = this.parent; up != null; up = up.parent) {
+            depthCount++;
+        }
+        return depthCount;
     }
 
     /**
@@ -291,7 +470,7 @@ public class DirectoryTree<K> {
      * upon directory.
      */
     public int folders() {
-        return navTree.size();
+        return directoryLeaves.size();
     }
 
     /**
@@ -307,7 +486,7 @@ public class DirectoryTree<K> {
      * within the called upon directory.
      */
     public int size() {
-        return navTree.size() + entries.size();
+        return directoryLeaves.size() + entries.size();
     }
 
     /**
@@ -342,9 +521,10 @@ public class DirectoryTree<K> {
                 .append(this.uniqueName)
                 .append(':')
                 .append('\n');
-        for (Directory dir : this.directoryLeaves) {
-            this.navTree.get(dir.dirUUID())
-                    .listDirectories(showEntries, depthIn + "\t", str);
+        for (DirectoryTree<K> child : this.navTree) {
+            if (child != null) {
+                child.listDirectories(showEntries, depthIn + "\t", str);
+            }
         }
         if (showEntries) {
             for (K entry : this.entries) {
@@ -372,22 +552,81 @@ public class DirectoryTree<K> {
      */
     public void renameDir(final int indexIn, final String nameIn) {
         DirectoryTree<K> temp = this.stepDown(indexIn);
-        String oldName = temp.uniqueName;
+        this.renameDir(temp, nameIn);
 
-        this.navTree.remove(oldName);
+        final DirectoryTree<K> base = this.getBase();
+        if (base.journal != null) {
+            base.journal.renameDir(temp);
+        }
+    }
 
+    /**
+     * Renames a subdirectory of the called upon directory.
+     *
+     * @param temp The subdirectory that will be renamed.
+     * @param nameIn The new name for the directory.
+     */
+    final void renameDir(final DirectoryTree<K> temp, final String nameIn) {
         temp.name = nameIn;
-        temp.uniqueName = nameIn
-                + this.uniqueName.substring(
-                        this.uniqueName.lastIndexOf('#')
-        );
+        temp.uniqueName = nameIn + "#" + temp.index;
+        temp.leaf.setDirName(temp.name);
+        temp.leaf.setDirUUID(temp.uniqueName);
+    }
+
+    /**
+     * Moves a subdirectory of the called upon directory, along with
+     * everything below it, into another directory. Entries refer to their
+     * directory by folder id, so nothing but the catalog changes.
+     *
+     * @param indexIn The index of the subdirectory to move.
+     * @param moveTo The directory to move the subdirectory into.
+     * @return Returns true if the subdirectory was moved.<br>
+     * Returns false if the move would place a directory inside itself or
+     * the subdirectory is already in that directory.
+     */
+    public boolean moveDir(final int indexIn, final DirectoryTree<K> moveTo) {
+        final DirectoryTree<K> temp = this.stepDown(indexIn);
+        if (!this.reparent(temp, moveTo)) {
+            return false;
+        }
+
+        final DirectoryTree<K> base = this.getBase();
+        if (base.journal != null) {
+            base.journal.moveDir(temp);
+        }
+        return true;
+    }
 
-        this.navTree.put(temp.uniqueName, temp);
+    /**
+     * Detaches a subdirectory from the called upon directory and attaches
+     * it to the end of another directory's subdirectories.
+     *
+     * @param temp The subdirectory to move.
+     * @param moveTo The directory to move the subdirectory into.
+     * @return Returns true if the subdirectory was moved.
+     */
+    final boolean reparent(
+            final DirectoryTree<K> temp,
+            final DirectoryTree<K> moveTo
+    ) {
+        if (moveTo == this) {
+            return false;
+        }
+        for (DirectoryTree<K> up = moveTo; up != null; up = up.parent) {
+            if (up == temp) {
+                return false;
+            }
+        }
 
-        Directory tempDir = this.directoryLeaves.get(indexIn);
-        tempDir.setDirName(temp.name);
-        tempDir.setDirUUID(temp.uniqueName);
+        this.unlink(temp);
 
+        temp.parent = moveTo;
+        temp.index = moveTo.navTree.size();
+        temp.uniqueName = temp.name + "#" + temp.index;
+        temp.leaf.setDirUUID(temp.uniqueName);
+        moveTo.navTree.add(temp);
+        moveTo.directoryLeaves.add(temp.leaf);
+        return true;
     }
 
     /**
@@ -411,10 +650,10 @@ public class DirectoryTree<K> {
      * directory. This is to prevent the loss of world visually not showing
      * within any of the compatible menus.
      *
-     * @see #safeRemoveDir(String) This method is what does the actual remove
-     *                             of the subdirectory. removeDir() does all
-     *                             the necessairy checks before a subdirectory
-     *                             can be safely removed.
+     * @see #detachDir(DirectoryTree) This method is what does the actual
+     *                             remove of the subdirectory. removeDir()
+     *                             does all the necessairy checks before a
+     *                             subdirectory can be safely removed.
      *
      * @param dirName The subdirectory's name that will be removed from the
      *                containing directory. The containing directory is the
@@ -424,220 +663,141 @@ public class DirectoryTree<K> {
      *         a subdirectory.
      */
     public boolean removeDir(final String dirName) {
-        if (!this.navTree.containsKey(dirName)) {
+        final DirectoryTree<K> temp = this.stepDown(dirName);
+        if (temp == null) {
             return false;
         }
 
-        //:: Looks into the directory to see if
-        // - worlds or servers need to be moved to
-        // - the base directory.
-        final DirectoryTree<K> temp = this.navTree.get(dirName);
-        boolean hasEntry = temp.entries.isEmpty();
-
-        if (!hasEntry) {
-            if (temp.entries.get(0) instanceof WorldEntry) {
-                hasEntry = writeWorldsToBase(
-                        (DirectoryTree<WorldEntry>) temp
-                );
-            }
-            if (temp.entries.get(0) instanceof ServerEntry) {
-                hasEntry = writeServersToBase(
-                        (DirectoryTree<ServerEntry>) temp
-                );
-            }
-        }
-
-        Map<String, DirectoryTree<K>> rmvFromTree;
-        rmvFromTree = new HashMap<>(temp.navTree);
-        for (final String key : rmvFromTree.keySet()) {
-            hasEntry = temp.removeDir(key);
-            temp.navTree = rmvFromTree;
-            rmvFromTree = new HashMap<>(rmvFromTree);
+        final DirectoryTree<K> base = this.getBase();
+        if (base.journal != null) {
+            base.journal.removeDir(temp);
         }
-
-        safeRemoveDir(dirName);
-
-        return hasEntry;
+        return this.detachDir(temp);
     }
 
     /**
-     * Safe removing a directory entails updating every other directory
-     * within the list to update with the appropriate unique name that
-     * corresponds to the position in which the directory can be found
-     * in the list.
-     *
-     * After the list is updated, the directory to removed from the list
-     * is then removed.
+     * Removes a subdirectory and everything below it without recording
+     * the removal in the journal. Every world or server below it is moved
+     * to the base directory, and the worlds are written to the world
+     * index at once.
      *
-     * @param dirName The name of the directory that needs to be removed.
+     * @see #removeDir(String)
+     * @param temp The subdirectory to remove.
      * @return Always returns true.
      */
-    private boolean safeRemoveDir(final String dirName) {
-        final int rmvDirIndex = Integer.parseInt(
-                dirName.substring(
-                        dirName.lastIndexOf('#') + 1
-                )
-        );
-        final Map<String, DirectoryTree<K>> treeCopy;
-        treeCopy = new HashMap<>(this.navTree);
-        treeCopy.remove(dirName);
-
-        for (int x = 0; x < this.directoryLeaves.size(); x++) {
-            String oldKey = this.directoryLeaves.get(x).dirUUID();
-            int i = Integer.parseInt(
-                    oldKey.substring(
-                            oldKey.lastIndexOf('#') + 1
-                    )
+    private boolean detachDir(final DirectoryTree<K> temp) {
+        final List<String> worldFileNames = new ArrayList<>();
+        temp.releaseEntries(this.getBase().folderIndex, worldFileNames);
+        if (!worldFileNames.isEmpty()) {
+            WorldIndex.instance().setFolders(
+                    worldFileNames,
+                    CatalogFormat.BASE_FOLDER_ID
             );
-
-            if (i > rmvDirIndex) {
-                int newIndex = i - 1;
-                String newKey = oldKey.substring(
-                        0, oldKey.lastIndexOf('#') + 1
-                ) + newIndex;
-                DirectoryTree<K> val = navTree.get(oldKey);
-
-                treeCopy.remove(oldKey);
-                treeCopy.put(newKey, val);
-                this.directoryLeaves.get(i).setDirUUID(newKey);
-                val.uniqueName = newKey;
-                val.index--;
-            }
         }
 
-        this.navTree = treeCopy;
-        this.directoryLeaves.remove(rmvDirIndex);
-
+        this.unlink(temp);
         return true;
     }
 
     /**
-     * Removes an entry from the directory list.
-     * @param indexIn the index of the entry to be removed
-     * @return Returns false if the index is out of bounds
-     *         Returns true if the entry was successfully deleted
-     */
-    public boolean removeEntry(final int indexIn) {
-        boolean ret = indexIn >= 0 && indexIn < this.entries.size();
-        if (ret) {
-            this.entries.remove(indexIn);
+     * Hands the entries of the called upon directory and every directory
+     * below it to the base directory and forgets their folder ids.
+     *
+     * @param folders The folder id lookup of the base directory, or null
+     *                if it has not been built.
+     * @param worldFileNames Collects the worlds that have to be written to
+     *                       the world index.
+     */
+    private void releaseEntries(
+            final Map<Integer, DirectoryTree<K>> folders,
+            final List<String> worldFileNames
+    ) {
+        for (final K entry : this.entries) {
+            if (entry instanceof WorldEntry) {
+                worldFileNames.add(((WorldEntry) entry).getWorldFileName());
+            } else if (entry instanceof ServerEntry) {
+                writeServerToBase((ServerEntry) entry);
+            }
+        }
+        if (folders != null) {
+            folders.remove(this.folderId);
         }
-        return ret;
-    }
-
-    //:: Data writing
-    //:::::::::::::::::::::::::::::://
 
-    /**
-     * Writes all worlds with out a proper in game directory
-     * to the base in game directory.
-     * @param folder The navTree location to move the worlds out of.
-     * @return Returns true if worlds were successfully move.<br>
-     * Returns false otherwise.
-     */
-    private static boolean writeWorldsToBase(
-            final DirectoryTree<WorldEntry> folder
-    ) {
-        for (final WorldEntry entry : folder.entries) {
-            File createSavePath = Minecraft.getMinecraft()
-                    .getSaveLoader()
-                    .getFile(
-                            entry.getWorldFileName(),
-                            MOPMLiterals.MOPM_SAVE_DAT
-                    );
-            createSavePath.getParentFile().mkdirs();
-
-            if (!writeWorldToBase(createSavePath)) {
-                return false;
+        for (final DirectoryTree<K> child : this.navTree) {
+            if (child != null) {
+                child.releaseEntries(folders, worldFileNames);
             }
         }
-        return true;
     }
 
     /**
-     * @param worldFolder the file in which the world save path location
-     *                    is saved in.
-     * @return Returns true if the world was successfully written to the
-     * base directory. false otherwise.
+     * Takes a subdirectory out of the called upon directory. Its slot is
+     * left as a tombstone so no other subdirectory has to be renamed; the
+     * slots are only compacted once the tombstones outnumber the
+     * subdirectories.
+     *
+     * @param temp The subdirectory to take out.
      */
-    public static boolean writeWorldToBase(final File worldFolder) {
-        try (
-                DataOutputStream write =
-                        new DataOutputStream(
-                                new FileOutputStream(worldFolder)
-                        )
-        ) {
-            write.write(MOPMLiterals.BASE_DIR.getBytes());
-        } catch (IOException e) {
-            References.LOG.error(e);
-            return false;
+    private void unlink(final DirectoryTree<K> temp) {
+        this.navTree.set(temp.index, null);
+        this.directoryLeaves.remove(temp.leaf);
+        this.tombstones++;
+
+        if (this.tombstones > this.directoryLeaves.size()) {
+            this.compactSlots();
         }
-        return true;
     }
 
     /**
-     * @return Returns true if all worlds were successfully saved to the
-     * base directory. returns false if only one world was unsuccessfully
-     * saved.
-     * @throws AnvilConverterException Thrown if worlds couldn't be loaded.
+     * Closes the gaps left by removed subdirectories. Every remaining
+     * subdirectory's unique name is updated to its new slot.
      */
-    private static boolean safeWriteWorldsToBase()
-            throws AnvilConverterException {
-        final Minecraft mc = Minecraft.getMinecraft();
-        final ISaveFormat saveLoader = mc.getSaveLoader();
-
-        for (final WorldSummary summary : saveLoader.getSaveList()) {
-            final File mopmSaveFile = saveLoader.getFile(
-                    summary.getFileName(),
-                    MOPMLiterals.MOPM_SAVE_DAT
-            );
-            if (!writeWorldToBase(mopmSaveFile)) {
-                return false;
+    private void compactSlots() {
+        int slot = 0;
+        for (int i = 0; i < this.navTree.size(); i++) {
+            final DirectoryTree<K> child = this.navTree.get(i);
+            if (child != null) {
+                child.index = slot;
+                child.uniqueName = child.name + "#" + slot;
+                child.leaf.setDirUUID(child.uniqueName);
+                this.navTree.set(slot, child);
+                slot++;
             }
         }
-
-        return true;
+        this.navTree.subList(slot, this.navTree.size()).clear();
+        this.tombstones = 0;
     }
 
     /**
-     * Ensures that all worlds on disk have an in game directory
-     * location.
-     * @return Returns true if all worlds have a location in game. <br>
-     * Returns false if this errors at all.
+     * Removes an entry from the directory list.
+     * @param entry the entry to be removed
+     * @return Returns false if the directory does not contain the entry
+     *         Returns true if the entry was successfully deleted
      */
-    private static boolean ensureMopmWorldSaveFile() {
-        final Minecraft mc = Minecraft.getMinecraft();
-        final ISaveFormat saveLoader = mc.getSaveLoader();
-
-        try {
-            for (final WorldSummary summary : saveLoader.getSaveList()) {
-                final File mopmSaveFile = saveLoader.getFile(
-                        summary.getFileName(),
-                        MOPMLiterals.MOPM_SAVE_DAT
-                );
-                if (!mopmSaveFile.exists() && !writeWorldToBase(mopmSaveFile)) {
-                    return false;
-                }
-            }
-            return true;
-        } catch (AnvilConverterException e) {
-            References.LOG.error("", e);
-            return false;
-        }
+    public boolean removeEntry(final K entry) {
+        return this.entries.remove(entry);
     }
 
+    //:: Data writing
+    //:::::::::::::::::::::::::::::://
+
     /**
-     * @param folder the virtual folder servers are contained in
-     * @return returns true if all servers were successfully saved to the
-     * base directory. returns false if only one server was unsuccessfully
-     * saved.
+     * @return Returns true if all worlds were successfully saved to the
+     * base directory.
+     * @throws AnvilConverterException Thrown if worlds couldn't be loaded.
      */
-    private static boolean writeServersToBase(
-            final DirectoryTree<ServerEntry> folder
-    ) {
-        for (final ServerEntry entry : new ArrayList<>(folder.entries)) {
-            writeServerToBase(entry);
+    private static boolean safeWriteWorldsToBase()
+            throws AnvilConverterException {
+        final List<WorldSummary> saves =
+                WorldSummaryCache.instance().getSaveList();
+        final List<String> worldFileNames = new ArrayList<>(saves.size());
+        for (final WorldSummary summary : saves) {
+            worldFileNames.add(summary.getFileName());
         }
+        WorldIndex.instance().setFolders(
+                worldFileNames,
+                CatalogFormat.BASE_FOLDER_ID
+        );
         return true;
     }
 
@@ -647,7 +807,7 @@ public class DirectoryTree<K> {
      * @return Returns true always.
      */
     public static boolean writeServerToBase(final ServerEntry entry) {
-        entry.setUniquePath(MOPMLiterals.BASE_DIR);
+        entry.setFolderId(CatalogFormat.BASE_FOLDER_ID);
         entry.updateList();
         return true;
     }
@@ -671,9 +831,10 @@ public class DirectoryTree<K> {
 
             for (int i = 0; i < tagList.tagCount(); ++i) {
                 final NBTTagCompound tagCompound = tagList.getCompoundTagAt(i);
-                tagCompound.setString(
-                        MOPMLiterals.MOPM_SAVE,
-                        MOPMLiterals.BASE_DIR
+                tagCompound.removeTag(MOPMLiterals.MOPM_SAVE);
+                tagCompound.setInteger(
+                        MOPMLiterals.MOPM_FOLDER,
+                        CatalogFormat.BASE_FOLDER_ID
                 );
             }
         } catch (IOException e) {
@@ -688,11 +849,14 @@ public class DirectoryTree<K> {
      * @param loadFrom the file to load from.
      */
     public final void load(final File loadFrom) {
+        this.journal = null;
         if (!loadFrom.isFile()) {
+            new DirectoryJournal(loadFrom).discard();
             hardLoad(loadFrom);
         } else {
             this.softLoad(loadFrom);
         }
+        this.journal = new DirectoryJournal(loadFrom);
     }
 
     /**
@@ -700,13 +864,11 @@ public class DirectoryTree<K> {
      * @param loadFrom The corrupted/un-existent mopm data file.
      */
     private static void hardLoad(final File loadFrom) {
-        try (
-                DataOutputStream write =
-                        new DataOutputStream(
-                                new FileOutputStream(loadFrom)
-                        )
-        ) {
-            write.write((MOPMLiterals.BASE_DIR + ":").getBytes());
+        try {
+            CatalogFormat.write(
+                    loadFrom,
+                    new DirectoryTree<>(MOPMLiterals.BASE_DIR_NAME)
+            );
 
             final String fileName = loadFrom.getName();
             if (fileName.equals(MOPMLiterals.MOPM_SSP)) {
@@ -723,17 +885,50 @@ public class DirectoryTree<K> {
 
     /**
      * Loads in the the mopm save data from the load file.
+     * Catalogs written in the old tab indented text format are read once
+     * and then rewritten in the binary catalog format.
      * @param loadFrom The mopm save file that contains all the load data.
      */
     public final void softLoad(final File loadFrom) {
-        ensureMopmWorldSaveFile();
+        final DirectoryJournal log = new DirectoryJournal(loadFrom);
+        try {
+            if (CatalogFormat.isCatalog(loadFrom)) {
+                CatalogFormat.read(loadFrom, this);
+                log.replay(this);
+            } else {
+                log.discard();
+                this.legacyLoad(loadFrom);
+                References.LOG.info(
+                        "Migrating " + loadFrom.getName() + " to the binary "
+                                + "catalog format."
+                );
+                this.save(loadFrom);
+            }
+        } catch (IOException | RuntimeException e) {
+            this.navTree.clear();
+            this.directoryLeaves.clear();
+            this.tombstones = 0;
+            this.folderIndex = null;
+            log.discard();
+            hardLoad(loadFrom);
+            References.LOG.error("", e);
+        }
+    }
+
+    /**
+     * Loads in the tab indented text format that was used before the
+     * binary catalog.
+     * @param loadFrom The legacy mopm save file.
+     * @throws IOException Thrown if the file could not be parsed.
+     */
+    private void legacyLoad(final File loadFrom) throws IOException {
         try (
                 BufferedReader reader =
                         new BufferedReader(
                                 new FileReader(loadFrom)
                         )
         ) {
-            if (!reader.readLine().equals(MOPMLiterals.BASE_DIR + ":")) {
+            if (!(MOPMLiterals.BASE_DIR + ":").equals(reader.readLine())) {
                 throw new IOException();
             }
 
@@ -755,7 +950,7 @@ public class DirectoryTree<K> {
                         lineDepth,
                         line.lastIndexOf('#')
                 );
-                if (top.depth >= lineDepth) {
+                if (top.getDepth() >= lineDepth) {
                     while (loadOrder.size() > lineDepth) {
                         loadOrder.pop();
                     }
@@ -769,30 +964,28 @@ public class DirectoryTree<K> {
                         )
                 );
             }
-        } catch (IOException | NoSuchElementException e) {
-            hardLoad(loadFrom);
-            References.LOG.error("", e);
         }
     }
 
     /**
+     * Writes the whole catalog. A catalog that was loaded through
+     * {@link #load(File)} journals each change as it is made, so there is
+     * nothing left to write for it here.
      * @param saveTo the file to save to.
      * @return Returns true if the file was successfully saved.<br>
      * Returns false otherwise.
      */
     public boolean save(final File saveTo) {
         //:: Return false if the directory is not the base directory.
-        if (this.depth != 0) {
+        if (this.parent != null) {
             return false;
         }
+        if (this.journal != null) {
+            return true;
+        }
 
-        try (
-                DataOutputStream writer =
-                        new DataOutputStream(
-                                new FileOutputStream(saveTo)
-                        )
-        ) {
-            writer.write(listDirectories(false).getBytes());
+        try {
+            CatalogFormat.write(saveTo, this);
         } catch (IOException e) {
             References.LOG.error("Unable to save: ", e);
             return false;
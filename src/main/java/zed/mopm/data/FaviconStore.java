@@ -0,0 +1,182 @@
+package zed.mopm.data;
+
+import com.google.common.hash.Hashing;
+import net.minecraft.client.Minecraft;
+import zed.mopm.util.BackgroundIO;
+import zed.mopm.util.MOPMLiterals;
+import zed.mopm.util.References;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps server favicons out of servers.dat. Every icon is stored once as
+ * a png in the mopm cache directory, named after the SHA-1 hash of its
+ * bytes, and the server list only keeps the hash in its
+ * {@link MOPMLiterals#MOPM_ICON} tag.<br><br>
+ *
+ * Vanilla readers of servers.dat see a server without an icon and simply
+ * fetch it again on the next ping.
+ */
+public final class FaviconStore {
+
+    //-----Consts:--------------------------------------//
+
+    /**
+     * The directory inside the mopm cache the icons are stored in.
+     */
+    private static final String ICON_DIR = "icons";
+    /**
+     * The file extension of a stored icon.
+     */
+    private static final String ICON_EXT = ".png";
+    /**
+     * The suffix of the temporary file written before an icon is stored.
+     */
+    private static final String TMP_SUFFIX = "_tmp";
+
+    /**
+     * The directory the icons are stored in.
+     */
+    private static final File STORE_DIR = new File(
+            new File(
+                    Minecraft.getMinecraft().gameDir,
+                    MOPMLiterals.MOPM_CACHE
+            ),
+            ICON_DIR
+    );
+    /**
+     * The hashes of every icon known to be stored or queued to be stored.
+     */
+    private static final Set<String> STORED = ConcurrentHashMap.newKeySet();
+
+    //-----Constructors:--------------------------------//
+
+    /**
+     * This should not be accessed.
+     */
+    private FaviconStore() { }
+
+    //-----This:----------------------------------------//
+
+    /**
+     * Stores an icon unless an icon with the same bytes is already stored.
+     * The icon is decoded, hashed and written on the I/O thread, and its
+     * hash is handed to the client thread once the file is in place.
+     * @param base64Icon The base 64 encoded png, as kept by the server data.
+     * @param onStored Receives the hash the icon is stored under on the
+     * client thread, or null if the icon is not valid base 64.
+     */
+    public static void put(
+            final String base64Icon,
+            final Consumer<String> onStored
+    ) {
+        BackgroundIO.execute(() -> {
+            final String hash = store(base64Icon);
+            Minecraft.getMinecraft().addScheduledTask(
+                    () -> onStored.accept(hash)
+            );
+        });
+    }
+
+    /**
+     * Reads a stored icon on the I/O thread and hands it to the client
+     * thread.
+     * @param hash The hash the icon is stored under.
+     * @param onLoad Receives the base 64 encoded png on the client
+     * thread, or null if the icon is not stored.
+     */
+    public static void load(
+            final String hash,
+            final Consumer<String> onLoad
+    ) {
+        BackgroundIO.execute(() -> {
+            final String icon = read(hash);
+            Minecraft.getMinecraft().addScheduledTask(
+                    () -> onLoad.accept(icon)
+            );
+        });
+    }
+
+    /**
+     * Reads a stored icon.
+     * @param hash The hash the icon is stored under.
+     * @return Returns the base 64 encoded png.<br>
+     * Returns null if the icon is not stored.
+     */
+    private static String read(final String hash) {
+        final File iconFile = iconFile(hash);
+        if (!iconFile.isFile()) {
+            STORED.remove(hash);
+            return null;
+        }
+
+        try {
+            final byte[] icon = Files.readAllBytes(iconFile.toPath());
+            STORED.add(hash);
+            return Base64.getEncoder().encodeToString(icon);
+        } catch (IOException e) {
+            References.LOG.error("Unable to read server icon " + hash, e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores an icon unless an icon with the same bytes is already stored.
+     * @param base64Icon The base 64 encoded png.
+     * @return Returns the hash the icon is stored under.<br>
+     * Returns null if the icon is not valid base 64.
+     */
+    private static String store(final String base64Icon) {
+        final byte[] icon;
+        try {
+            icon = Base64.getMimeDecoder().decode(base64Icon);
+        } catch (IllegalArgumentException e) {
+            References.LOG.warn("Not storing an invalid server icon", e);
+            return null;
+        }
+
+        final String hash = Hashing.sha1().hashBytes(icon).toString();
+        if (STORED.add(hash) && !iconFile(hash).isFile()) {
+            write(hash, icon);
+        }
+        return hash;
+    }
+
+    /**
+     * @param hash The hash of an icon.
+     * @return Returns the file the icon is stored in.
+     */
+    private static File iconFile(final String hash) {
+        return new File(STORE_DIR, hash + ICON_EXT);
+    }
+
+    /**
+     * Writes an icon to a temporary file and moves it into place, so a
+     * crash never leaves a partial icon under a valid hash.
+     * @param hash The hash of the icon.
+     * @param icon The png bytes.
+     */
+    private static void write(final String hash, final byte[] icon) {
+        final File iconFile = iconFile(hash);
+        final File tmp = new File(iconFile.getPath() + TMP_SUFFIX);
+        try {
+            Files.createDirectories(STORE_DIR.toPath());
+            Files.write(tmp.toPath(), icon);
+            Files.move(
+                    tmp.toPath(),
+                    iconFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING
+            );
+        } catch (IOException e) {
+            STORED.remove(hash);
+            References.LOG.error("Unable to store server icon: ", e);
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package zed.mopm.data;
+
+import net.minecraft.nbt.NBTBase;
+import net.minecraft.nbt.NBTTagByte;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagDouble;
+import net.minecraft.nbt.NBTTagFloat;
+import net.minecraft.nbt.NBTTagInt;
+import net.minecraft.nbt.NBTTagLong;
+import net.minecraft.nbt.NBTTagShort;
+import net.minecraft.nbt.NBTTagString;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a handful of tags out of the Data compound of a level.dat without
+ * building the rest of the file. Payloads that are not wanted, such as
+ * the player, generator settings and mod data, are skipped through a
+ * reusable buffer instead of being turned into NBT objects. Reading stops
+ * as soon as every wanted tag has been found.
+ */
+public final class LevelSummaryReader {
+
+    //-----Consts:--------------------------------------//
+
+    /**
+     * The level.dat compound that holds the world data.
+     */
+    private static final String DATA_TAG = "Data";
+    /**
+     * The size of the buffer unwanted payloads are skipped through.
+     */
+    private static final int SKIP_BUFFER_SIZE = 4096;
+
+    /**
+     * The tag type of the end of a compound.
+     */
+    private static final byte TAG_END = 0;
+    /**
+     * The tag type of a byte.
+     */
+    private static final byte TAG_BYTE = 1;
+    /**
+     * The tag type of a short.
+     */
+    private static final byte TAG_SHORT = 2;
+    /**
+     * The tag type of an int.
+     */
+    private static final byte TAG_INT = 3;
+    /**
+     * The tag type of a long.
+     */
+    private static final byte TAG_LONG = 4;
+    /**
+     * The tag type of a float.
+     */
+    private static final byte TAG_FLOAT = 5;
+    /**
+     * The tag type of a double.
+     */
+    private static final byte TAG_DOUBLE = 6;
+    /**
+     * The tag type of a byte array.
+     */
+    private static final byte TAG_BYTE_ARRAY = 7;
+    /**
+     * The tag type of a string.
+     */
+    private static final byte TAG_STRING = 8;
+    /**
+     * The tag type of a list.
+     */
+    private static final byte TAG_LIST = 9;
+    /**
+     * The tag type of a compound.
+     */
+    private static final byte TAG_COMPOUND = 10;
+    /**
+     * The tag type of an int array.
+     */
+    private static final byte TAG_INT_ARRAY = 11;
+    /**
+     * The tag type of a long array.
+     */
+    private static final byte TAG_LONG_ARRAY = 12;
+
+    //-----Fields:--------------------------------------//
+
+    /**
+     * The decompressed level.dat.
+     */
+    private final DataInputStream in;
+    /**
+     * The buffer unwanted payloads are read into and thrown away.
+     */
+    private final byte[] skipBuffer = new byte[SKIP_BUFFER_SIZE];
+
+    //-----Constructors:--------------------------------//
+
+    /**
+     * Creates a reader over a decompressed level.dat.
+     * @param stream The decompressed level.dat.
+     */
+    private LevelSummaryReader(final DataInputStream stream) {
+        this.in = stream;
+    }
+
+    //-----This:----------------------------------------//
+
+    /**
+     * Reads the wanted tags of a level.dat's Data compound.
+     * @param levelDat The gzip compressed level.dat.
+     * @param wanted The names of the Data tags to keep.
+     * @return Returns a compound with the wanted tags that were found.
+     * @throws IOException Thrown if the file is not a readable level.dat.
+     */
+    public static NBTTagCompound read(
+            final File levelDat,
+            final Set<String> wanted
+    ) throws IOException {
+        try (
+                DataInputStream stream =
+                        new DataInputStream(
+                                new BufferedInputStream(
+                                        new GZIPInputStream(
+                                                new FileInputStream(levelDat)
+                                        )
+                                )
+                        )
+        ) {
+            return new LevelSummaryReader(stream).readLevel(wanted);
+        }
+    }
+
+    /**
+     * Finds the Data compound in the root compound and reads it.
+     * @param wanted The names of the Data tags to keep.
+     * @return Returns a compound with the wanted tags that were found.
+     * @throws IOException Thrown if the stream is not a level.dat.
+     */
+    private NBTTagCompound readLevel(final Set<String> wanted)
+            throws IOException {
+        if (this.in.readByte() != TAG_COMPOUND) {
+            throw new IOException("Root tag must be a compound");
+        }
+        this.skipString();
+
+        for (byte type = this.in.readByte();
+             type != TAG_END;
+             type = this.in.readByte()) {
+            final String name = this.in.readUTF();
+            if (type == TAG_COMPOUND && DATA_TAG.equals(name)) {
+                return this.readData(wanted);
+            }
+            this.skipPayload(type);
+        }
+        throw new IOException("level.dat has no " + DATA_TAG + " compound");
+    }
+
+    /**
+     * Reads the wanted tags of the Data compound and skips the others.
+     * @param wanted The names of the Data tags to keep.
+     * @return Returns a compound with the wanted tags that were found.
+     * @throws IOException Thrown if the compound is malformed.
+     */
+    private NBTTagCompound readData(final Set<String> wanted)
+            throws IOException {
+        final NBTTagCompound found = new NBTTagCompound();
+        for (byte type = this.in.readByte();
+             type != TAG_END;
+             type = this.in.readByte()) {
+            final String name = this.in.readUTF();
+            if (wanted.contains(name)) {
+                found.setTag(name, this.readPayload(type));
+                if (found.getSize() == wanted.size()) {
+                    break;
+                }
+            } else {
+                this.skipPayload(type);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Reads the payload of a wanted tag. Summary tags are small, so only
+     * the primitive, string and compound types are supported.
+     * @param type The tag type.
+     * @return Returns the tag.
+     * @throws IOException Thrown if the tag type is not supported.
+     */
+    private NBTBase readPayload(final byte type) throws IOException {
+        switch (type) {
+            case TAG_BYTE:
+                return new NBTTagByte(this.in.readByte());
+            case TAG_SHORT:
+                return new NBTTagShort(this.in.readShort());
+            case TAG_INT:
+                return new NBTTagInt(this.in.readInt());
+            case TAG_LONG:
+                return new NBTTagLong(this.in.readLong());
+            case TAG_FLOAT:
+                return new NBTTagFloat(this.in.readFloat());
+            case TAG_DOUBLE:
+                return new NBTTagDouble(this.in.readDouble());
+            case TAG_STRING:
+                return new NBTTagString(this.in.readUTF());
+            case TAG_COMPOUND:
+                final NBTTagCompound compound = new NBTTagCompound();
+                for (byte child = this.in.readByte();
+                     child != TAG_END;
+                     child = this.in.readByte()) {
+                    final String name = this.in.readUTF();
+                    compound.setTag(name, this.readPayload(child));
+                }
+                return compound;
+            default:
+                throw new IOException("Unsupported summary tag type " + type);
+        }
+    }
+
+    /**
+     * Skips the payload of a tag without creating it.
+     * @param type The tag type.
+     * @throws IOException Thrown if the tag type is unknown.
+     */
+    private void skipPayload(final byte type) throws IOException {
+        switch (type) {
+            case TAG_BYTE:
+                this.skip(Byte.BYTES);
+                break;
+            case TAG_SHORT:
+                this.skip(Short.BYTES);
+                break;
+            case TAG_INT:
+            case TAG_FLOAT:
+                this.skip(Integer.BYTES);
+                break;
+            case TAG_LONG:
+            case TAG_DOUBLE:
+                this.skip(Long.BYTES);
+                break;
+            case TAG_BYTE_ARRAY:
+                this.skip(this.in.readInt());
+                break;
+            case TAG_STRING:
+                this.skipString();
+                break;
+            case TAG_LIST:
+                final byte elementType = this.in.readByte();
+                final int length = this.in.readInt();
+                for (int i = 0; i < length; i++) {
+                    this.skipPayload(elementType);
+                }
+                break;
+            case TAG_COMPOUND:
+                for (byte child = this.in.readByte();
+                     child != TAG_END;
+                     child = this.in.readByte()) {
+                    this.skipString();
+                    this.skipPayload(child);
+                }
+                break;
+            case TAG_INT_ARRAY:
+                this.skip((long) this.in.readInt() * Integer.BYTES);
+                break;
+            case TAG_LONG_ARRAY:
+                this.skip((long) this.in.readInt() * Long.BYTES);
+                break;
+            case TAG_END:
+                break;
+            default:
+                throw new IOException("Unknown tag type " + type);
+        }
+    }
+
+    /**
+     * Skips a modified UTF-8 string.
+     * @throws IOException Thrown if the stream ends early.
+     */
+    private void skipString() throws IOException {
+        this.skip(this.in.readUnsignedShort());
+    }
+
+    /**
+     * Skips a number of bytes by reading them into the skip buffer.
+     * @param count The number of bytes to skip.
+     * @throws IOException Thrown if the stream ends early.
+     */
+    private void skip(final long count) throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            final int chunk = (int) Math.min(remaining, this.skipBuffer.length);
+            this.in.readFully(this.skipBuffer, 0, chunk);
+            remaining -= chunk;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package zed.mopm.data;
+
+import zed.mopm.util.MOPMLiterals;
+import zed.mopm.util.References;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the saves directory for worlds that are added, removed or
+ * changed by anything other than the world menu, such as backups,
+ * launchers and downloaded maps. The saves directory is watched for world
+ * folders and every world folder is watched for its level.dat, so only
+ * the worlds that actually changed have to be read again.<br><br>
+ *
+ * Events are collected on a daemon thread until the directory has been
+ * quiet for {@link #SETTLE_DELAY} milliseconds, then handed to the
+ * listener as one batch.<br><br>
+ *
+ * There is at most one watcher per saves directory. Starting to watch a
+ * directory that is already watched hands its events to the new listener
+ * instead of starting another thread, and {@link #close()} stops the
+ * thread and releases every watch key.
+ */
+public final class SavesWatcher implements Runnable {
+
+    //-----Consts:--------------------------------------//
+
+    /**
+     * The name of the watching thread.
+     */
+    private static final String THREAD_NAME = "MOPM Saves Watcher";
+    /**
+     * How long a burst of events may be quiet before it is handed to the
+     * listener, in milliseconds.
+     */
+    private static final long SETTLE_DELAY = 250L;
+
+    /**
+     * The running watcher of every watched saves directory.
+     */
+    private static final Map<Path, SavesWatcher> WATCHERS = new HashMap<>();
+
+    //-----Fields:--------------------------------------//
+
+    /**
+     * The directory the worlds are saved in.
+     */
+    private final Path savesDir;
+    /**
+     * Receives the worlds that changed.
+     */
+    private volatile Listener listener;
+    /**
+     * The thread the watcher runs on.
+     */
+    private Thread thread;
+    /**
+     * The watch service of the saves directory's file system.
+     */
+    private final WatchService service;
+    /**
+     * The key of the saves directory itself.
+     */
+    private final WatchKey savesKey;
+    /**
+     * The world folder name of every watched world folder, keyed by
+     * its watch key.
+     */
+    private final Map<WatchKey, String> worldKeys = new HashMap<>();
+
+    //-----Constructors:--------------------------------//
+
+    /**
+     * Creates a watcher and registers the saves directory.
+     * @param savesDirIn The directory the worlds are saved in.
+     * @param listenerIn Receives the worlds that changed.
+     * @throws IOException Thrown if the saves directory can not be watched.
+     */
+    private SavesWatcher(final Path savesDirIn, final Listener listenerIn)
+            throws IOException {
+        this.savesDir = savesDirIn;
+        this.listener = listenerIn;
+        this.service = savesDirIn.getFileSystem().newWatchService();
+        this.savesKey = savesDirIn.register(
+                this.service,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE,
+                StandardWatchEventKinds.ENTRY_MODIFY
+        );
+    }
+
+    //-----This:----------------------------------------//
+
+    /**
+     * Starts watching a saves directory on a daemon thread, or hands the
+     * events of the watcher that already watches it to a new listener.
+     * Failing to watch the directory is logged; the world menu then only
+     * learns about changes when it rescans.
+     * @param savesDirIn The directory the worlds are saved in.
+     * @param listenerIn Receives the worlds that changed. It is called on
+     * the watching thread.
+     * @return Returns the watcher, or null if the directory can not be
+     * watched.
+     */
+    public static synchronized SavesWatcher start(
+            final File savesDirIn,
+            final Listener listenerIn
+    ) {
+        final Path savesDirPath = savesDirIn.toPath().toAbsolutePath();
+        final SavesWatcher running = WATCHERS.get(savesDirPath);
+        if (running != null) {
+            running.listener = listenerIn;
+            return running;
+        }
+
+        try {
+            final SavesWatcher watcher =
+                    new SavesWatcher(savesDirPath, listenerIn);
+            watcher.thread = new Thread(watcher, THREAD_NAME);
+            watcher.thread.setDaemon(true);
+            watcher.thread.start();
+            WATCHERS.put(savesDirPath, watcher);
+            return watcher;
+        } catch (IOException | UnsupportedOperationException e) {
+            References.LOG.error("Unable to watch the saves directory: ", e);
+            return null;
+        }
+    }
+
+    /**
+     * Stops watching the saves directory. The watch service is closed,
+     * which cancels every watch key, and the thread is interrupted.
+     */
+    public void close() {
+        synchronized (SavesWatcher.class) {
+            WATCHERS.remove(this.savesDir, this);
+        }
+        try {
+            this.service.close();
+        } catch (IOException e) {
+            References.LOG.error("Unable to stop watching the saves: ", e);
+        }
+        this.thread.interrupt();
+    }
+
+    /**
+     * Registers every world folder, then hands batches of changed worlds
+     * to the listener until the saves directory can no longer be watched.
+     */
+    @Override
+    public void run() {
+        try {
+            final File[] worldDirs = this.savesDir.toFile()
+                    .listFiles(File::isDirectory);
+            if (worldDirs != null) {
+                for (final File worldDir : worldDirs) {
+                    this.watchWorld(worldDir.toPath());
+                }
+            }
+
+            while (this.savesKey.isValid()) {
+                final Set<String> changed = new HashSet<>();
+                boolean overflowed = this.poll(this.service.take(), changed);
+
+                WatchKey key = this.service.poll(
+                        SETTLE_DELAY,
+                        TimeUnit.MILLISECONDS
+                );
+                while (key != null) {
+                    overflowed |= this.poll(key, changed);
+                    key = this.service.poll(
+                            SETTLE_DELAY,
+                            TimeUnit.MILLISECONDS
+                    );
+                }
+
+                if (overflowed) {
+                    this.listener.overflowed();
+                } else if (!changed.isEmpty()) {
+                    this.listener.worldsChanged(changed);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Collects the worlds named by the events of a signalled key and
+     * resets it.
+     * @param key The signalled key.
+     * @param changed The folder names of the worlds that changed.
+     * @return Returns true if events were lost and the saves directory
+     * has to be scanned again.
+     */
+    private boolean poll(final WatchKey key, final Set<String> changed) {
+        boolean overflowed = false;
+        final String world = this.worldKeys.get(key);
+
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflowed = true;
+                continue;
+            }
+
+            final Path name = (Path) event.context();
+            if (key == this.savesKey) {
+                changed.add(name.toString());
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    this.watchWorld(this.savesDir.resolve(name));
+                }
+            } else if (world != null && isLevelDat(name)) {
+                changed.add(world);
+            }
+        }
+
+        if (!key.reset()) {
+            this.worldKeys.remove(key);
+        }
+        return overflowed;
+    }
+
+    /**
+     * Starts watching a world folder for changes to its level.dat.
+     * @param worldDir The world folder.
+     */
+    private void watchWorld(final Path worldDir) {
+        if (!worldDir.toFile().isDirectory()) {
+            return;
+        }
+
+        try {
+            this.worldKeys.put(
+                    worldDir.register(
+                            this.service,
+                            StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY
+                    ),
+                    worldDir.getFileName().toString()
+            );
+        } catch (IOException e) {
+            References.LOG.error("Unable to watch " + worldDir, e);
+        }
+    }
+
+    /**
+     * @param name The name of a file in a world folder.
+     * @return Returns true if the file holds the world's summary.
+     */
+    private static boolean isLevelDat(final Path name) {
+        final String fileName = name.toString();
+        return MOPMLiterals.LEVEL_DAT.equals(fileName)
+                || MOPMLiterals.LEVEL_DAT_OLD.equals(fileName);
+    }
+
+    //-----Listener:------------------------------------//
+
+    /**
+     * Receives the changes found by a saves watcher.
+     */
+    public interface Listener {
+
+        /**
+         * Called when worlds were added, removed or changed.
+         * @param worldFileNames The folder names of the changed worlds.
+         */
+        void worldsChanged(Set<String> worldFileNames);
+
+        /**
+         * Called when too many changes happened at once to tell which
+         * worlds changed.
+         */
+        void overflowed();
+    }
+}
@@ -7,7 +7,6 @@ import zed.mopm.api.data.IDrawableListEntry;
 import zed.mopm.api.data.IFolderPath;
 import zed.mopm.gui.menus.base.ServerSelectMenu;
 import zed.mopm.gui.elements.lists.DirectoryList;
-import zed.mopm.util.PathFormatter;
 
 import java.io.File;
 
@@ -41,20 +40,11 @@ public class ServerEntry
      * The containing selection menu.
      */
     private ServerSelectMenu owner;
-    /**
-     * The path the contains this entry.
-     */
-    private String pathToContainingDirectory;
     /**
      * True if the server is lan. <br>
      * False if the server is online.
      */
     private boolean lan;
-    /**
-     * The index where the server entry is located within the
-     * selection list.
-     */
-    private int listIndex;
 
     //-----Constructors:--------------------------------//
 
@@ -62,19 +52,14 @@ public class ServerEntry
      * Creates a new server entry.
      * @param ownerIn The containing selection menu.
      * @param serverIn The server data.
-     * @param index The list index of the new entry.
      */
     public ServerEntry(
             final GuiMultiplayer ownerIn,
-            final ServerSaveData serverIn,
-            final int index
+            final ServerSaveData serverIn
     ) {
         super(ownerIn, serverIn.getServerData());
         this.owner = (ServerSelectMenu) ownerIn;
         this.server = serverIn;
-        this.pathToContainingDirectory =
-                PathFormatter.ensurePathFormat(serverIn.getSavePath());
-        this.listIndex = index;
         this.lan = false;
     }
 
@@ -107,10 +92,8 @@ public class ServerEntry
             final boolean isSelected,
             final float partialTicks
     ) {
-        boolean isFocused =
-                this.owner.getServers()
-                        .getWholeIndexFromSelected()
-                        == this.listIndex;
+        boolean isFocused = this.owner.getServers().isSelectedEntry(this);
+        this.server.loadStoredIcon();
         super.drawEntry(
                 slotIndex,
                 x,
@@ -130,7 +113,9 @@ public class ServerEntry
                         .getBase64EncodedIconData();
         if (iconData != null && !iconData.equals(this.lastIcon)) {
             this.lastIcon = iconData;
-            this.owner.getServers().getListDetails().save();
+            this.server.storeIcon(
+                    this.owner.getServers().getListDetails()::save
+            );
         }
     }
 
@@ -148,22 +133,23 @@ public class ServerEntry
     }
 
     /**
-     * Sets the uniquely named path of where this server entry is located.
-     * @param path The uniquely named path.
+     * Moves the server entry to another directory.
+     * @param folderId The folder id of the new containing directory.
      */
     @Override
-    public final void setUniquePath(final String path) {
-        this.pathToContainingDirectory = PathFormatter.ensurePathFormat(path);
-        this.server.setSavePath(path);
+    public final void setFolderId(final int folderId) {
+        this.server.setFolderId(folderId);
         this.owner.getServers().getListDetails().save();
     }
 
     /**
-     * @return Returns the location in which this server entry is located.
+     * @return Returns the folder id of the directory this server entry is
+     * located in. It is read from the server data, so an entry that is
+     * reused after its server was edited follows the edit.
      */
     @Override
-    public final String getPathToDir() {
-        return pathToContainingDirectory;
+    public final int getFolderId() {
+        return this.server.getFolderId();
     }
 
     /**
@@ -214,23 +200,16 @@ public class ServerEntry
      */
     @Override
     public final boolean equals(final Object o) {
-        if (o instanceof ServerEntry) {
-            final ServerEntry obj = (ServerEntry) o;
-            return this.server == obj.server
-                    || this.listIndex == obj.listIndex
-                    && this.pathToContainingDirectory.equals(
-                            obj.pathToContainingDirectory
-            );
-        }
-        return false;
+        return o instanceof ServerEntry
+                && this.server.getId().equals(((ServerEntry) o).server.getId());
     }
 
     /**
-     * @return Returns the list index.
+     * @return Returns the hash code of the server's id.
      */
     @Override
     public final int hashCode() {
-        return this.listIndex;
+        return this.server.getId().hashCode();
     }
 
     //-----This:----------------------------------------//
@@ -255,8 +234,8 @@ public class ServerEntry
      */
     public final void removeServer(final DirectoryList removeFrom) {
         removeFrom.getBaseFolder()
-                .folderPath(this.pathToContainingDirectory)
-                .removeEntry(this.owner.getServers().getSelectedIndex());
+                .folderById(this.getFolderId())
+                .removeEntry(this);
     }
 
     /**
@@ -266,11 +245,4 @@ public class ServerEntry
     public final boolean isLan() {
         return this.lan;
     }
-
-    /**
-     * @return Returns the list index of this server entry.
-     */
-    public final int getListIndex() {
-        return this.listIndex;
-    }
 }
@@ -6,6 +6,8 @@ import net.minecraft.nbt.NBTTagString;
 import zed.mopm.api.data.ServerDataStatus;
 import zed.mopm.util.MOPMLiterals;
 
+import java.util.UUID;
+
 public class ServerSaveData {
 
     //-----Fields:--------------------------------------//
@@ -21,40 +23,73 @@ public class ServerSaveData {
      */
     private ServerData saveData;
     /**
-     * The location where the containing server entry is located.
+     * The id that identifies the server in servers.dat no matter where
+     * it is listed or what it is named. It is created the first time it
+     * is needed.
+     */
+    private String id;
+    /**
+     * The folder id of the directory the containing server entry is
+     * located in.
+     */
+    private int folderId = CatalogFormat.BASE_FOLDER_ID;
+    /**
+     * The unique directory path an older version stored for the server,
+     * or null once it has been resolved to a folder id.
+     */
+    private String legacyPath;
+    /**
+     * The hash the server icon is stored under in the favicon store.
+     */
+    private String iconHash;
+    /**
+     * The base 64 icon that {@link #iconHash} was computed from.
+     */
+    private String hashedIcon;
+    /**
+     * The hash of the icon being loaded from the favicon store, or null
+     * if no icon is being loaded.
+     */
+    private String loadingHash;
+    /**
+     * The base 64 icon being stored in the favicon store, or null if no
+     * icon is being stored.
      */
-    private String savePath;
+    private String storingIcon;
 
     //-----Constructors:--------------------------------//
 
     /**
      * Creates a new mopm server save data with the given vanilla
-     * save data and the containing save path in the directory list.
+     * save data and the containing directory in the directory list.
      * @param data The vanilla server data.
-     * @param path The directory list location of the server entry.
+     * @param folderIdIn The folder id of the server entry's directory.
      */
-    public ServerSaveData(final ServerData data, final String path) {
+    public ServerSaveData(final ServerData data, final int folderIdIn) {
         this.saveData = data;
-        this.savePath = path;
+        this.folderId = folderIdIn;
     }
 
     /**
-     * Makes a copy of another mopm server save data.
+     * Makes a copy of another mopm server save data. The copy is added to
+     * the list as a new server, so it is given an id of its own.
      * @param copyFrom The server save data to copy from.
      */
     public ServerSaveData(final ServerSaveData copyFrom) {
         this.saveData = new ServerData("", "", false);
         this.saveData.copyFrom(copyFrom.saveData);
-        this.savePath = copyFrom.savePath;
+        this.folderId = copyFrom.folderId;
+        this.legacyPath = copyFrom.legacyPath;
+        this.iconHash = copyFrom.iconHash;
+        this.hashedIcon = copyFrom.hashedIcon;
     }
 
     /**
-     * Creates a default server save data with no name, no ip, and no
-     * directory path.
+     * Creates a default server save data with no name, no ip, located
+     * in the base directory.
      */
     public ServerSaveData() {
         this.saveData = new ServerData("", "", false);
-        this.savePath = "";
     }
 
     //-----This:----------------------------------------//
@@ -68,10 +103,29 @@ public class ServerSaveData {
     }
 
     /**
-     * @return Returns the containing directory of the associated server entry.
+     * @return Returns the id that identifies the server in servers.dat.
+     */
+    public final String getId() {
+        if (this.id == null) {
+            this.id = UUID.randomUUID().toString();
+        }
+        return this.id;
+    }
+
+    /**
+     * Sets the id that was read for the server from servers.dat.
+     * @param idIn The id of the server.
+     */
+    public final void setId(final String idIn) {
+        this.id = idIn;
+    }
+
+    /**
+     * @return Returns the folder id of the containing directory of the
+     * associated server entry.
      */
-    public final String getSavePath() {
-        return this.savePath;
+    public final int getFolderId() {
+        return this.folderId;
     }
 
     /**
@@ -82,20 +136,177 @@ public class ServerSaveData {
     }
 
     /**
-     * @return Returns the save nbt of the server save data.
+     * @return Returns the save nbt of the server save data. A stored icon
+     * is replaced by its hash in the favicon store; an icon that has not
+     * been stored yet is kept in the vanilla tag.
      */
     public final NBTTagCompound getNBTSaveData() {
         final NBTTagCompound nbt = this.saveData.getNBTCompound();
-        nbt.setTag(MOPMLiterals.MOPM_SAVE, new NBTTagString(this.savePath));
+        nbt.setTag(MOPMLiterals.MOPM_ID, new NBTTagString(this.getId()));
+        if (this.legacyPath != null) {
+            nbt.setTag(
+                    MOPMLiterals.MOPM_SAVE,
+                    new NBTTagString(this.legacyPath)
+            );
+        } else {
+            nbt.setInteger(MOPMLiterals.MOPM_FOLDER, this.folderId);
+        }
+
+        final String icon = this.saveData.getBase64EncodedIconData();
+        if (this.iconHash != null
+                && (icon == null || icon == this.hashedIcon)) {
+            nbt.removeTag(MOPMLiterals.SERVER_ICON_TAG);
+            nbt.setTag(MOPMLiterals.MOPM_ICON, new NBTTagString(this.iconHash));
+        }
         return nbt;
     }
 
     /**
-     * Sets the directory path of where the server entry is located.
-     * @param path The new path location.
+     * @return Returns the hash the icon is stored under in the favicon
+     * store, or null if there is none.
+     */
+    public final String getIconHash() {
+        return this.iconHash;
+    }
+
+    /**
+     * Sets the hash of the stored icon that was read from servers.dat.
+     * @param hash The hash the icon is stored under.
+     */
+    public final void setIconHash(final String hash) {
+        this.iconHash = hash;
+    }
+
+    /**
+     * Starts storing the icon in the favicon store if it has not been
+     * stored yet. The icon is hashed and written on the I/O thread; once
+     * it is stored, its hash replaces it in the save nbt.
+     * @param onStored Runs on the client thread once a new icon is stored.
      */
-    public final void setSavePath(final String path) {
-        this.savePath = path;
+    public final void storeIcon(final Runnable onStored) {
+        final String icon = this.saveData.getBase64EncodedIconData();
+        //:: The server data keeps the same string until the icon changes,
+        //:: so comparing references avoids rehashing unchanged icons.
+        if (icon == null
+                || icon == this.hashedIcon
+                || icon == this.storingIcon) {
+            return;
+        }
+
+        this.storingIcon = icon;
+        FaviconStore.put(
+                icon,
+                hash -> this.applyIconHash(icon, hash, onStored)
+        );
+    }
+
+    /**
+     * Records the hash an icon was stored under, unless the server was
+     * given another icon while it was being stored.
+     * @param icon The base 64 icon that was stored.
+     * @param hash The hash it is stored under, or null if it was not
+     * stored.
+     * @param onStored Runs if the hash was recorded.
+     */
+    private void applyIconHash(
+            final String icon,
+            final String hash,
+            final Runnable onStored
+    ) {
+        if (icon != this.storingIcon) {
+            return;
+        }
+        this.storingIcon = null;
+        if (hash == null
+                || icon != this.saveData.getBase64EncodedIconData()) {
+            return;
+        }
+
+        this.iconHash = hash;
+        this.hashedIcon = icon;
+        onStored.run();
+    }
+
+    /**
+     * Starts loading the icon from the favicon store if the server data
+     * does not have one yet. The icon is set on the client thread once
+     * it has been read.
+     */
+    public final void loadStoredIcon() {
+        if (this.iconHash == null
+                || this.iconHash.equals(this.loadingHash)
+                || this.saveData.getBase64EncodedIconData() != null) {
+            return;
+        }
+
+        final String hash = this.iconHash;
+        this.loadingHash = hash;
+        FaviconStore.load(hash, icon -> this.applyStoredIcon(hash, icon));
+    }
+
+    /**
+     * Sets an icon read from the favicon store, unless the server was
+     * given another icon while it was being read.
+     * @param hash The hash the icon was read for.
+     * @param icon The base 64 encoded png, or null if it is not stored.
+     */
+    private void applyStoredIcon(final String hash, final String icon) {
+        if (!hash.equals(this.loadingHash)) {
+            return;
+        }
+        this.loadingHash = null;
+        if (!hash.equals(this.iconHash)
+                || this.saveData.getBase64EncodedIconData() != null) {
+            return;
+        }
+
+        if (icon == null) {
+            this.iconHash = null;
+            return;
+        }
+        this.saveData.setBase64EncodedIconData(icon);
+        this.hashedIcon = icon;
+    }
+
+    /**
+     * Sets the directory the server entry is located in.
+     * @param folderIdIn The folder id of the new directory.
+     */
+    public final void setFolderId(final int folderIdIn) {
+        this.folderId = folderIdIn;
+        this.legacyPath = null;
+    }
+
+    /**
+     * Places the server in the same directory as another server.
+     * @param other The server save data to take the directory from.
+     */
+    public final void copyLocationFrom(final ServerSaveData other) {
+        this.folderId = other.folderId;
+        this.legacyPath = other.legacyPath;
+    }
+
+    /**
+     * Sets the unique directory path an older version stored for the
+     * server. It is kept until {@link #resolveLegacyPath(DirectoryTree)}.
+     * @param path The unique directory path.
+     */
+    public final void setLegacyPath(final String path) {
+        this.legacyPath = path;
+    }
+
+    /**
+     * Turns the directory path an older version stored into a folder id.
+     * @param catalog The server catalog the path points into.
+     * @return Returns true if there was a path to resolve.
+     */
+    public final boolean resolveLegacyPath(final DirectoryTree<?> catalog) {
+        if (this.legacyPath == null) {
+            return false;
+        }
+        this.folderId = catalog.resolvePath(this.legacyPath);
+        this.legacyPath = null;
+        return true;
     }
 
     /**
@@ -109,11 +320,15 @@ public class ServerSaveData {
 
     /**
      * Copies the information of another server save data onto this
-     * server save data.
+     * server save data. The id is kept, since this is still the same
+     * server.
      * @param newSave The server save data to copy from.
      */
     public final void copyFrom(final ServerSaveData newSave) {
-        this.savePath = newSave.savePath;
+        this.folderId = newSave.folderId;
+        this.legacyPath = newSave.legacyPath;
+        this.iconHash = newSave.iconHash;
+        this.hashedIcon = newSave.hashedIcon;
         this.saveData.copyFrom(newSave.getServerData());
         this.saveData.serverMOTD = newSave.getServerData().serverMOTD;
     }
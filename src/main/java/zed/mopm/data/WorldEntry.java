@@ -1,20 +1,25 @@
 package zed.mopm.data;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.DataOutputStream;
-import java.io.FileOutputStream;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
 
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.FontRenderer;
+import net.minecraft.client.gui.Gui;
 import net.minecraft.client.gui.GuiListExtended;
 import net.minecraft.client.gui.GuiListWorldSelection;
 import net.minecraft.client.gui.GuiListWorldSelectionEntry;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.resources.I18n;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.text.TextFormatting;
 import net.minecraft.world.storage.ISaveFormat;
 import net.minecraft.world.storage.ISaveHandler;
 import net.minecraft.world.storage.WorldInfo;
 import net.minecraft.world.storage.WorldSummary;
+import org.apache.commons.lang3.StringUtils;
 import zed.mopm.api.data.IDrawableListEntry;
 import zed.mopm.api.data.IFolderPath;
 import zed.mopm.gui.elements.lists.DirectoryList;
@@ -23,8 +28,6 @@ import zed.mopm.gui.menus.base.SelectMenuBase;
 import zed.mopm.gui.menus.mutators.entries.CreateEntryMenu;
 import zed.mopm.gui.menus.mutators.entries.CreateWorldMenu;
 import zed.mopm.util.MOPMLiterals;
-import zed.mopm.util.PathFormatter;
-import zed.mopm.util.References;
 
 public class WorldEntry
         extends GuiListWorldSelectionEntry
@@ -33,6 +36,58 @@ public class WorldEntry
         IDrawableListEntry,
         Comparable<WorldEntry> {
 
+    //-----Consts:--------------------------------------//
+
+    /**
+     * The texture holding the play and warning overlays of world icons.
+     */
+    private static final ResourceLocation ICON_OVERLAY =
+            new ResourceLocation("textures/gui/world_selection.png");
+    /**
+     * The format of the last played date, the same as vanilla's.
+     */
+    private static final DateFormat DATE_FORMAT = new SimpleDateFormat();
+    /**
+     * The width and height world icons are drawn at.
+     */
+    private static final int ICON_SIZE = 32;
+    /**
+     * The width and height of the overlay texture.
+     */
+    private static final float OVERLAY_TEXTURE_SIZE = 256.0F;
+    /**
+     * The x location of the play overlay in the overlay texture.
+     */
+    private static final float PLAY_U = 0.0F;
+    /**
+     * The x location of the version overlay in the overlay texture.
+     */
+    private static final float VERSION_U = 32.0F;
+    /**
+     * The x location of the snapshot warning in the overlay texture.
+     */
+    private static final float SNAPSHOT_U = 64.0F;
+    /**
+     * The x location of the newer version warning in the overlay texture.
+     */
+    private static final float NEWER_U = 96.0F;
+    /**
+     * The color the selected world icon is darkened with.
+     */
+    private static final int OVERLAY_SHADE = 0xA0909090;
+    /**
+     * The space between the icon and the text of an entry.
+     */
+    private static final int TEXT_PADDING = 3;
+    /**
+     * The color of the world name.
+     */
+    private static final int NAME_COLOR = 0xFFFFFF;
+    /**
+     * The color of the world details.
+     */
+    private static final int DETAIL_COLOR = 0x808080;
+
     //-----Fields:--------------------------------------//
 
     /**
@@ -44,17 +99,44 @@ public class WorldEntry
      */
     private WorldList worldList;
     /**
-     * The path to the directory where this world entry is contained.
+     * The folder id of the directory where this world entry is contained.
      */
-    private String pathToContainingDirectory;
+    private int containingFolderId;
     /**
      * The mopm world save file name.
      */
     private String worldFileName;
     /**
-     * A reference to the world save file to write the containing path to.
+     * The per world save file older versions wrote the containing path to.
      */
     private File mopmSaveData;
+    /**
+     * The world icon from the shared icon cache, or null if the world has
+     * none or it has not been drawn yet.
+     */
+    private WorldIconCache.WorldIcon icon;
+    /**
+     * True once the world icon has been looked up. Icons are only looked
+     * up once the entry is drawn, so scans do not read icons of worlds in
+     * folders that are never opened.
+     */
+    private boolean iconLookedUp;
+    /**
+     * The folder name and last played date shown below the world name.
+     */
+    private String info;
+    /**
+     * The game mode and version shown below the folder name.
+     */
+    private String description;
+    /**
+     * True if the play overlay is drawn over the icon.
+     */
+    private boolean showOverlay;
+    /**
+     * True if the mouse was over the icon when the entry was last drawn.
+     */
+    private boolean iconHovered;
 
     /**
      * The world entry's x location in the containing list.
@@ -78,7 +160,11 @@ public class WorldEntry
             final WorldSummary worldSummaryIn,
             final ISaveFormat saveFormat
     ) {
-        super(listWorldSelIn, worldSummaryIn, saveFormat);
+        super(
+                listWorldSelIn,
+                worldSummaryIn,
+                WorldIconCache.instance().getIconlessFormat()
+        );
         worldList = (WorldList) listWorldSelIn;
         summary = worldSummaryIn;
         worldFileName = worldSummaryIn.getFileName();
@@ -86,19 +172,12 @@ public class WorldEntry
                 worldFileName,
                 MOPMLiterals.MOPM_SAVE_DAT
         );
-
-        try (
-                BufferedReader reader =
-                        new BufferedReader(
-                                new FileReader(mopmSaveData)
-                        )
-        ) {
-            pathToContainingDirectory = reader.readLine();
-            pathToContainingDirectory =
-                    PathFormatter.ensurePathFormat(pathToContainingDirectory);
-        } catch (IOException e) {
-            References.LOG.error("", e);
-        }
+        containingFolderId = WorldIndex.instance().getFolderId(worldFileName);
+        info = worldFileName
+                + " ("
+                + DATE_FORMAT.format(new Date(summary.getLastTimePlayed()))
+                + ")";
+        description = describe(summary);
     }
 
     //-----This:----------------------------------------//
@@ -111,6 +190,106 @@ public class WorldEntry
         return this.worldFileName;
     }
 
+    /**
+     * Marks the world icon as drawn in the shared icon cache, looking it
+     * up the first time the entry is drawn.
+     * @return Returns the world icon, or null if the world has none.
+     */
+    public final WorldIconCache.WorldIcon getIcon() {
+        final WorldIconCache icons = WorldIconCache.instance();
+        if (this.iconLookedUp) {
+            this.icon = icons.touch(this.icon, this.worldFileName);
+        } else {
+            this.icon = icons.get(this.worldFileName);
+            this.iconLookedUp = true;
+        }
+        return this.icon;
+    }
+
+    /**
+     * Draws the play overlay over the icon if the entry is selected. It is
+     * drawn after the icon, where the entry was last drawn. This mirrors
+     * the overlay part of {@link GuiListWorldSelectionEntry#drawEntry}.
+     */
+    public final void drawOverlay() {
+        if (!this.showOverlay) {
+            return;
+        }
+
+        final int x = this.xLoc;
+        final int y = this.yLoc;
+        float v = 0.0F;
+        if (this.iconHovered) {
+            v = ICON_SIZE;
+        }
+        Minecraft.getMinecraft().getTextureManager().bindTexture(ICON_OVERLAY);
+        Gui.drawRect(x, y, x + ICON_SIZE, y + ICON_SIZE, OVERLAY_SHADE);
+        GlStateManager.color(1.0F, 1.0F, 1.0F, 1.0F);
+        if (!this.summary.markVersionInList()) {
+            this.drawOverlayIcon(PLAY_U, v);
+            return;
+        }
+
+        this.drawOverlayIcon(VERSION_U, v);
+        if (this.summary.askToOpenWorld()) {
+            this.drawOverlayIcon(NEWER_U, v);
+        } else {
+            this.drawOverlayIcon(SNAPSHOT_U, v);
+        }
+    }
+
+    /**
+     * Draws one icon of the overlay texture over the world icon.
+     * @param u The x location of the icon in the overlay texture.
+     * @param v The y location of the icon in the overlay texture.
+     */
+    private void drawOverlayIcon(final float u, final float v) {
+        Gui.drawModalRectWithCustomSizedTexture(
+                this.xLoc,
+                this.yLoc,
+                u,
+                v,
+                ICON_SIZE,
+                ICON_SIZE,
+                OVERLAY_TEXTURE_SIZE,
+                OVERLAY_TEXTURE_SIZE
+        );
+    }
+
+    /**
+     * Describes the game mode and version of a world the same way the
+     * vanilla world list does.
+     * @param worldSummary The world summary.
+     * @return Returns the description.
+     */
+    private static String describe(final WorldSummary worldSummary) {
+        if (worldSummary.requiresConversion()) {
+            return I18n.format("selectWorld.conversion") + " ";
+        }
+
+        String mode = I18n.format(
+                "gameMode." + worldSummary.getEnumGameType().getName()
+        );
+        if (worldSummary.isHardcoreModeEnabled()) {
+            mode = TextFormatting.DARK_RED
+                    + I18n.format("gameMode.hardcore")
+                    + TextFormatting.RESET;
+        }
+        if (worldSummary.getCheatsEnabled()) {
+            mode += ", " + I18n.format("selectWorld.cheats");
+        }
+
+        String version = worldSummary.getVersionName();
+        if (worldSummary.markVersionInList()) {
+            TextFormatting versionFormat = TextFormatting.ITALIC;
+            if (worldSummary.askToOpenWorld()) {
+                versionFormat = TextFormatting.RED;
+            }
+            version = versionFormat + version + TextFormatting.RESET;
+        }
+        return mode + ", " + I18n.format("selectWorld.version") + " " + version;
+    }
+
     /**
      * Renames the world file.
      * @param name The new name of the world file.
@@ -135,8 +314,8 @@ public class WorldEntry
      */
     public final void removeWorld(final DirectoryList removeFrom) {
         removeFrom.getBaseFolder()
-                .folderPath(this.pathToContainingDirectory)
-                .removeEntry(this.worldList.getSelectedIndex());
+                .folderById(this.containingFolderId)
+                .removeEntry(this);
     }
 
     //-----Interfaces/Overridden Methods:---------------//
@@ -173,7 +352,12 @@ public class WorldEntry
     //:::::::::::::::::::::::::::::://
 
     /**
-     * Draws the world entry.
+     * Draws the text of the world entry. The icon and its overlay are
+     * drawn afterwards for every visible entry at once by
+     * {@link WorldIconCache#drawIcons(java.util.List)}.<br>
+     * Together with {@link #drawOverlay()} this mirrors the vanilla
+     * {@link GuiListWorldSelectionEntry#drawEntry}, which is not called;
+     * changes to the vanilla layout have to be copied here.
      * @param slotIndex The slot index of the entry.
      * @param x The x location of the world entry.
      * @param y The y location of the world entry.
@@ -196,16 +380,34 @@ public class WorldEntry
             final boolean isSelected,
             final float partialTicks
     ) {
-        super.drawEntry(slotIndex,
-                x,
-                y,
-                listWidth,
-                slotHeight,
-                mouseX,
-                mouseY,
-                isSelected,
-                partialTicks
+        final Minecraft client = Minecraft.getMinecraft();
+        final FontRenderer font = client.fontRenderer;
+        final int textX = x + ICON_SIZE + TEXT_PADDING;
+        String name = this.summary.getDisplayName();
+        if (StringUtils.isEmpty(name)) {
+            name = I18n.format("selectWorld.world") + " " + (slotIndex + 1);
+        }
+        font.drawString(
+                name,
+                textX,
+                y + 1,
+                NAME_COLOR
         );
+        font.drawString(
+                this.info,
+                textX,
+                y + font.FONT_HEIGHT + TEXT_PADDING,
+                DETAIL_COLOR
+        );
+        font.drawString(
+                this.description,
+                textX,
+                y + font.FONT_HEIGHT + font.FONT_HEIGHT + TEXT_PADDING,
+                DETAIL_COLOR
+        );
+
+        this.showOverlay = client.gameSettings.touchscreen || isSelected;
+        this.iconHovered = mouseX - x < ICON_SIZE;
         this.xLoc = x;
         this.yLoc = y;
     }
@@ -214,46 +416,38 @@ public class WorldEntry
     //:::::::::::::::::::::::::::::://
 
     /**
-     * Sets the containing directory path location.
-     * @param path The new path.
+     * This is not in use because the world entry is located by its
+     * folder id.
+     * @param path The directory path where this entry is located.
      */
     @Override
     public final void setPath(final String path) {
-        this.pathToContainingDirectory = path;
+        // Not in use since the folder id locates the world entry.
     }
 
     /**
-     * Sets the unique containing path to the world entry.
-     * @param path The unique path to the world entry.
+     * Moves the world entry to another directory.
+     * @param folderId The folder id of the new containing directory.
      */
     @Override
-    public final void setUniquePath(final String path) {
-        this.pathToContainingDirectory = path;
-        try (
-                DataOutputStream writer =
-                        new DataOutputStream(
-                                new FileOutputStream(this.mopmSaveData)
-                        )
-        ) {
-            writer.write(path.getBytes());
-        } catch (IOException e) {
-            References.LOG.error("", e);
-        }
-        this.pathToContainingDirectory =
-                PathFormatter.ensurePathFormat(pathToContainingDirectory);
+    public final void setFolderId(final int folderId) {
+        this.containingFolderId = folderId;
+        WorldIndex.instance().setFolder(this.worldFileName, folderId);
+        this.worldList.invalidate();
     }
 
     /**
-     * @return Returns the path to the containing directory of the world entry.
+     * @return Returns the folder id of the containing directory of the
+     * world entry.
      */
     @Override
-    public final String getPathToDir() {
-        return pathToContainingDirectory;
+    public final int getFolderId() {
+        return this.containingFolderId;
     }
 
     /**
-     * @return Returns the save file where the path to the containing directory
-     * is saves.
+     * @return Returns the per world save file older versions wrote the path
+     * to the containing directory to.
      */
     @Override
     public final File getMopmSaveFile() {
@@ -271,18 +465,15 @@ public class WorldEntry
     @Override
     public final boolean equals(final Object o) {
         return o instanceof WorldEntry
-                &&  mopmSaveData.getAbsolutePath()
-                .equals(
-                        ((WorldEntry) o).mopmSaveData.getAbsolutePath()
-                );
+                && this.worldFileName.equals(((WorldEntry) o).worldFileName);
     }
 
     /**
-     * @return Returns the world summary hash code.
+     * @return Returns the hash code of the world folder name.
      */
     @Override
     public final int hashCode() {
-        return this.summary.hashCode();
+        return this.worldFileName.hashCode();
     }
 
     //:: Comparable
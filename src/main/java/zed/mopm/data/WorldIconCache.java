@@ -0,0 +1,663 @@
+package zed.mopm.data;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.texture.AbstractTexture;
+import net.minecraft.client.renderer.texture.TextureUtil;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.resources.IResourceManager;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.storage.ISaveFormat;
+import net.minecraft.world.storage.SaveFormatOld;
+import zed.mopm.gui.utils.QuadBatch;
+import zed.mopm.util.MOPMConfig;
+import zed.mopm.util.MOPMLiterals;
+import zed.mopm.util.References;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL11.GL_QUADS;
+
+/**
+ * Keeps the textures of world icons on the GPU across world list
+ * refreshes. The vanilla world entry decodes icon.png into a texture of
+ * its own every time it is created; world entries instead take their icon
+ * from this cache, which only reads an icon again once its icon.png has
+ * changed.<br><br>
+ *
+ * Icons are packed into atlas pages of {@link #SLOTS_PER_PAGE} icons each,
+ * so the icons of a whole screen of worlds are drawn with a bind and a
+ * draw call per page instead of one per world.<br><br>
+ *
+ * Icons are loaded the first time they are drawn and kept in least
+ * recently drawn order. Texture memory is held per atlas page, so once the
+ * pages take up more than {@link MOPMConfig#iconCacheSize} KiB, the page
+ * of the least recently drawn icon is emptied and deleted from the GPU.
+ * Icons on it that are still drawn are loaded again into another page.
+ */
+public final class WorldIconCache {
+
+    //-----Consts:--------------------------------------//
+
+    /**
+     * The width and height every world icon must have.
+     */
+    private static final int ICON_SIZE = 64;
+    /**
+     * The number of icons along each side of an atlas page.
+     */
+    private static final int SLOTS_PER_ROW = 8;
+    /**
+     * The number of icons an atlas page holds.
+     */
+    public static final int SLOTS_PER_PAGE = SLOTS_PER_ROW * SLOTS_PER_ROW;
+    /**
+     * The width and height of an atlas page.
+     */
+    private static final int PAGE_SIZE = ICON_SIZE * SLOTS_PER_ROW;
+    /**
+     * The width and height an icon is drawn at.
+     */
+    private static final int DRAW_SIZE = 32;
+    /**
+     * The texture memory a pixel takes up, in bytes.
+     */
+    private static final int BYTES_PER_PIXEL = 4;
+    /**
+     * The texture memory an atlas page takes up, in bytes.
+     */
+    private static final long PAGE_BYTES =
+            (long) PAGE_SIZE * PAGE_SIZE * BYTES_PER_PIXEL;
+    /**
+     * The number of bytes in a KiB.
+     */
+    private static final int KIB = 1024;
+    /**
+     * The path atlas pages are registered under in the texture manager.
+     */
+    private static final String TEXTURE_PATH = "world_icons/";
+    /**
+     * The icon drawn for worlds without an icon.
+     */
+    private static final ResourceLocation ICON_MISSING =
+            new ResourceLocation("textures/misc/unknown_server.png");
+
+    /**
+     * The cache that belongs to the running client.
+     */
+    private static WorldIconCache instance;
+
+    //-----Fields:--------------------------------------//
+
+    /**
+     * The directory the worlds are saved in.
+     */
+    private final File savesDir;
+    /**
+     * Every loaded icon keyed by world folder name, from least to most
+     * recently drawn.
+     */
+    private final Map<String, WorldIcon> icons =
+            new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * The save format handed to vanilla world entries, which hides the
+     * icon.png of every world so the entry does not load it itself.
+     */
+    private final ISaveFormat iconlessFormat;
+    /**
+     * The atlas pages on the GPU.
+     */
+    private final List<AtlasPage> pages = new ArrayList<>();
+    /**
+     * The icons being drawn by {@link #drawIcons(List)}, kept to avoid
+     * allocating a list every frame.
+     */
+    private final List<WorldIcon> drawn = new ArrayList<>();
+    /**
+     * The number used to name the next atlas page.
+     */
+    private int nextPageId;
+    /**
+     * The number of lookups that found the icon loaded.
+     */
+    private long hits;
+    /**
+     * The number of lookups that had to read the icon from disk.
+     */
+    private long misses;
+    /**
+     * The number of icons dropped to stay within the memory bound.
+     */
+    private long evictions;
+    /**
+     * The time spent in {@link #drawIcons(List)}, in nanoseconds.
+     */
+    private long drawNanos;
+    /**
+     * The number of times {@link #drawIcons(List)} was called.
+     */
+    private long drawPasses;
+
+    //-----Constructors:--------------------------------//
+
+    /**
+     * Creates an empty icon cache.
+     * @param savesDirIn The directory the worlds are saved in.
+     */
+    private WorldIconCache(final File savesDirIn) {
+        this.savesDir = savesDirIn;
+        this.iconlessFormat = new SaveFormatOld(
+                savesDirIn,
+                Minecraft.getMinecraft().getDataFixer()
+        ) {
+            @Override
+            public File getFile(final String saveName, final String path) {
+                if (MOPMLiterals.ICON_PNG.equals(path)) {
+                    //:: Not a file, so the vanilla entry has no icon.
+                    return new File(savesDirIn, saveName);
+                }
+                return super.getFile(saveName, path);
+            }
+        };
+    }
+
+    //-----This:----------------------------------------//
+
+    /**
+     * @return Returns the world icon cache of the game directory.
+     */
+    public static synchronized WorldIconCache instance() {
+        if (instance == null) {
+            instance = new WorldIconCache(
+                    new File(
+                            Minecraft.getMinecraft().gameDir,
+                            MOPMLiterals.SAVES_DIR
+                    )
+            );
+        }
+        return instance;
+    }
+
+    /**
+     * @return Returns a save format for constructing vanilla world entries
+     * that leaves loading the icon to this cache.
+     */
+    public ISaveFormat getIconlessFormat() {
+        return this.iconlessFormat;
+    }
+
+    /**
+     * Looks up the icon of a world, reading it from disk if it is not
+     * loaded or its icon.png changed since it was loaded.
+     * @param worldFileName The world folder name.
+     * @return Returns the icon, or null if the world has no usable icon.
+     */
+    public WorldIcon get(final String worldFileName) {
+        final File iconFile = new File(
+                new File(this.savesDir, worldFileName),
+                MOPMLiterals.ICON_PNG
+        );
+        final long mtime = iconFile.lastModified();
+        final WorldIcon loaded = this.icons.get(worldFileName);
+        if (loaded != null && loaded.mtime == mtime) {
+            this.hits++;
+            return loaded;
+        }
+
+        this.misses++;
+        if (loaded != null) {
+            this.evict(worldFileName);
+        }
+        if (mtime == 0L) {
+            return null;
+        }
+
+        final BufferedImage image;
+        try {
+            image = ImageIO.read(iconFile);
+        } catch (IOException e) {
+            References.LOG.error("Unable to read " + iconFile, e);
+            return null;
+        }
+        if (image == null
+                || image.getWidth() != ICON_SIZE
+                || image.getHeight() != ICON_SIZE) {
+            References.LOG.error(
+                    "World icons must be " + ICON_SIZE + " pixels square: "
+                            + iconFile
+            );
+            return null;
+        }
+
+        final int[] pixels = image.getRGB(
+                0,
+                0,
+                ICON_SIZE,
+                ICON_SIZE,
+                null,
+                0,
+                ICON_SIZE
+        );
+        final AtlasPage page = this.freePage();
+        final int slot = page.used.nextClearBit(0);
+        page.used.set(slot);
+        final WorldIcon icon = new WorldIcon(mtime, page, slot);
+        GlStateManager.bindTexture(page.texture.getGlTextureId());
+        TextureUtil.uploadTextureMipmap(
+                new int[][] {pixels},
+                ICON_SIZE,
+                ICON_SIZE,
+                icon.getX(),
+                icon.getY(),
+                false,
+                false
+        );
+        this.icons.put(worldFileName, icon);
+        this.trim(page);
+        return icon;
+    }
+
+    /**
+     * Marks an icon as just drawn. An icon that has been dropped since it
+     * was handed out is looked up again. Only that lookup is counted as a
+     * hit or miss.
+     * @param icon The icon that is about to be drawn, or null.
+     * @param worldFileName The world folder name of the icon.
+     * @return Returns the icon to draw, or null if there is none.
+     */
+    public WorldIcon touch(final WorldIcon icon, final String worldFileName) {
+        if (icon == null) {
+            return null;
+        }
+        if (icon.deleted) {
+            return this.get(worldFileName);
+        }
+        this.icons.get(worldFileName);
+        return icon;
+    }
+
+    /**
+     * Draws the icons of world entries where the entries were last drawn,
+     * with one bind and one draw call per atlas page. Worlds without an
+     * icon are drawn with the missing icon. The play overlay of every
+     * entry is drawn on top.
+     * @param entries The world entries to draw the icons of.
+     */
+    public void drawIcons(final List<WorldEntry> entries) {
+        final long start = System.nanoTime();
+        final Minecraft mc = Minecraft.getMinecraft();
+        final Tessellator tessellator = Tessellator.getInstance();
+        final BufferBuilder buffer = tessellator.getBuffer();
+        this.drawn.clear();
+        for (final WorldEntry entry : entries) {
+            this.drawn.add(entry.getIcon());
+        }
+        GlStateManager.color(1.0F, 1.0F, 1.0F, 1.0F);
+        GlStateManager.enableBlend();
+
+        if (this.drawn.contains(null)) {
+            mc.getTextureManager().bindTexture(ICON_MISSING);
+            buffer.begin(GL_QUADS, DefaultVertexFormats.POSITION_TEX);
+            for (int i = 0; i < entries.size(); i++) {
+                if (this.drawn.get(i) == null) {
+                    final WorldEntry entry = entries.get(i);
+                    addQuad(
+                            buffer,
+                            entry.getX(),
+                            entry.getY(),
+                            0,
+                            0,
+                            ICON_SIZE
+                    );
+                }
+            }
+            tessellator.draw();
+            QuadBatch.instance().countDraw();
+        }
+
+        for (final AtlasPage page : this.pages) {
+            if (!this.isDrawn(page)) {
+                continue;
+            }
+            mc.getTextureManager().bindTexture(page.location);
+            buffer.begin(GL_QUADS, DefaultVertexFormats.POSITION_TEX);
+            for (int i = 0; i < entries.size(); i++) {
+                final WorldIcon icon = this.drawn.get(i);
+                if (icon != null && icon.page == page) {
+                    final WorldEntry entry = entries.get(i);
+                    addQuad(
+                            buffer,
+                            entry.getX(),
+                            entry.getY(),
+                            icon.getX(),
+                            icon.getY(),
+                            PAGE_SIZE
+                    );
+                }
+            }
+            tessellator.draw();
+            QuadBatch.instance().countDraw();
+        }
+
+        GlStateManager.disableBlend();
+        for (final WorldEntry entry : entries) {
+            entry.drawOverlay();
+        }
+
+        this.drawNanos += System.nanoTime() - start;
+        this.drawPasses++;
+    }
+
+    /**
+     * @param page An atlas page.
+     * @return Returns true if an icon being drawn is on the page.
+     */
+    private boolean isDrawn(final AtlasPage page) {
+        for (final WorldIcon icon : this.drawn) {
+            if (icon != null && icon.page == page) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Logs the lookup counters, the resident texture memory and the
+     * average time spent drawing icons, if the world menu was opened.
+     */
+    public static synchronized void logStats() {
+        if (instance == null) {
+            return;
+        }
+        long average = 0L;
+        if (instance.drawPasses > 0) {
+            average = instance.drawNanos / instance.drawPasses;
+        }
+        References.LOG.debug(
+                "World icons: {} hits, {} misses, {} evictions, {} KiB "
+                        + "resident, {} ns per icon pass over {} frames",
+                instance.hits,
+                instance.misses,
+                instance.evictions,
+                instance.getResidentBytes() / KIB,
+                average,
+                instance.drawPasses
+        );
+    }
+
+    /**
+     * @return Returns the number of lookups that found the icon loaded.
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * @return Returns the number of lookups that had to read the icon from
+     * disk.
+     */
+    public long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * @return Returns the number of icons dropped to stay within the
+     * memory bound.
+     */
+    public long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * @return Returns the texture memory taken up by the atlas pages, in
+     * bytes.
+     */
+    public long getResidentBytes() {
+        return this.pages.size() * PAGE_BYTES;
+    }
+
+    /**
+     * Empties the page of the least recently drawn icon until the pages
+     * fit within the memory bound. The page holding the icon that was just
+     * loaded is kept.
+     * @param keep The page holding the icon that was just loaded.
+     */
+    private void trim(final AtlasPage keep) {
+        final long bound = (long) MOPMConfig.iconCacheSize * KIB;
+        while (this.getResidentBytes() > bound) {
+            AtlasPage eldest = null;
+            for (final WorldIcon icon : this.icons.values()) {
+                if (icon.page != keep) {
+                    eldest = icon.page;
+                    break;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            this.empty(eldest);
+        }
+    }
+
+    /**
+     * Drops every icon on an atlas page, which deletes the page.
+     * @param page The page to empty.
+     */
+    private void empty(final AtlasPage page) {
+        final Iterator<WorldIcon> loaded = this.icons.values().iterator();
+        while (loaded.hasNext()) {
+            final WorldIcon icon = loaded.next();
+            if (icon.page == page) {
+                loaded.remove();
+                this.delete(icon);
+                this.evictions++;
+            }
+        }
+    }
+
+    /**
+     * Drops the loaded icon of a world.
+     * @param worldFileName The world folder name.
+     */
+    private void evict(final String worldFileName) {
+        final WorldIcon icon = this.icons.remove(worldFileName);
+        if (icon != null) {
+            this.delete(icon);
+        }
+    }
+
+    /**
+     * Frees an icon's atlas slot and deletes its page from the GPU once
+     * the page holds no icons.
+     * @param icon The icon to drop.
+     */
+    private void delete(final WorldIcon icon) {
+        icon.deleted = true;
+        icon.page.used.clear(icon.slot);
+        if (icon.page.used.isEmpty()) {
+            this.pages.remove(icon.page);
+            Minecraft.getMinecraft()
+                    .getTextureManager()
+                    .deleteTexture(icon.page.location);
+        }
+    }
+
+    /**
+     * @return Returns an atlas page with a free slot, creating one if
+     * every page is full.
+     */
+    private AtlasPage freePage() {
+        for (final AtlasPage page : this.pages) {
+            if (page.used.cardinality() < SLOTS_PER_PAGE) {
+                return page;
+            }
+        }
+
+        final AtlasPage page = new AtlasPage(
+                new ResourceLocation(
+                        References.MODID,
+                        TEXTURE_PATH + this.nextPageId++
+                )
+        );
+        Minecraft.getMinecraft()
+                .getTextureManager()
+                .loadTexture(page.location, page.texture);
+        this.pages.add(page);
+        return page;
+    }
+
+    /**
+     * Adds an icon quad to a buffer.
+     * @param buffer The buffer being built.
+     * @param x The x location of the icon.
+     * @param y The y location of the icon.
+     * @param u The x location of the icon on its texture.
+     * @param v The y location of the icon on its texture.
+     * @param textureSize The width and height of the texture, in the same
+     * unit as u and v.
+     */
+    private static void addQuad(
+            final BufferBuilder buffer,
+            final int x,
+            final int y,
+            final int u,
+            final int v,
+            final int textureSize
+    ) {
+        final double minU = (double) u / textureSize;
+        final double minV = (double) v / textureSize;
+        final double maxU = (double) (u + ICON_SIZE) / textureSize;
+        final double maxV = (double) (v + ICON_SIZE) / textureSize;
+        buffer.pos(x, y + DRAW_SIZE, 0).tex(minU, maxV).endVertex();
+        buffer.pos(x + DRAW_SIZE, y + DRAW_SIZE, 0).tex(maxU, maxV).endVertex();
+        buffer.pos(x + DRAW_SIZE, y, 0).tex(maxU, minV).endVertex();
+        buffer.pos(x, y, 0).tex(minU, minV).endVertex();
+    }
+
+    //-----WorldIcon:-----------------------------------//
+
+    /**
+     * A world icon that is loaded into an atlas page.
+     */
+    public static final class WorldIcon {
+
+        /**
+         * The modification time of the icon.png the icon was read from.
+         */
+        private final long mtime;
+        /**
+         * The atlas page holding the icon.
+         */
+        private final AtlasPage page;
+        /**
+         * The slot of the icon in its atlas page.
+         */
+        private final int slot;
+        /**
+         * True once the icon has been dropped from its atlas page.
+         */
+        private boolean deleted;
+
+        /**
+         * Creates a loaded icon.
+         * @param mtimeIn The modification time of the icon.png.
+         * @param pageIn The atlas page holding the icon.
+         * @param slotIn The slot of the icon in its atlas page.
+         */
+        private WorldIcon(
+                final long mtimeIn,
+                final AtlasPage pageIn,
+                final int slotIn
+        ) {
+            this.mtime = mtimeIn;
+            this.page = pageIn;
+            this.slot = slotIn;
+        }
+
+        /**
+         * @return Returns the x location of the icon in its atlas page.
+         */
+        private int getX() {
+            return this.slot % SLOTS_PER_ROW * ICON_SIZE;
+        }
+
+        /**
+         * @return Returns the y location of the icon in its atlas page.
+         */
+        private int getY() {
+            return this.slot / SLOTS_PER_ROW * ICON_SIZE;
+        }
+    }
+
+    //-----AtlasPage:-----------------------------------//
+
+    /**
+     * A texture that world icons are packed into.
+     */
+    private static final class AtlasPage {
+
+        /**
+         * The location the page is registered under.
+         */
+        private final ResourceLocation location;
+        /**
+         * The page texture.
+         */
+        private final AtlasTexture texture = new AtlasTexture();
+        /**
+         * The slots that hold an icon.
+         */
+        private final BitSet used = new BitSet(SLOTS_PER_PAGE);
+
+        /**
+         * Creates an empty atlas page.
+         * @param locationIn The location the page is registered under.
+         */
+        private AtlasPage(final ResourceLocation locationIn) {
+            this.location = locationIn;
+        }
+    }
+
+    //-----AtlasTexture:--------------------------------//
+
+    /**
+     * The GL texture of an atlas page. Unlike a dynamic texture it keeps
+     * no copy of its pixels on the heap; icons are uploaded straight into
+     * the GL texture.
+     */
+    private static final class AtlasTexture extends AbstractTexture {
+
+        /**
+         * True once the GL storage of the page has been allocated.
+         */
+        private boolean allocated;
+
+        /**
+         * Allocates the GL storage of the page the first time the page is
+         * loaded. Resource reloads keep the uploaded icons.
+         * @param resourceManager The resource manager - [param not in use]
+         */
+        @Override
+        public void loadTexture(final IResourceManager resourceManager) {
+            if (!this.allocated) {
+                TextureUtil.allocateTexture(
+                        this.getGlTextureId(),
+                        PAGE_SIZE,
+                        PAGE_SIZE
+                );
+                this.allocated = true;
+            }
+        }
+    }
+}
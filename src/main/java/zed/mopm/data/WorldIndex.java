@@ -0,0 +1,340 @@
+package zed.mopm.data;
+
+import net.minecraft.client.Minecraft;
+import zed.mopm.util.BackgroundIO;
+import zed.mopm.util.MOPMLiterals;
+import zed.mopm.util.References;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps every world folder name to the folder id of the in game directory
+ * the world is stored in. The whole index lives in a single file in the
+ * game directory and is read once into memory. Folder ids never change,
+ * so renaming or moving a directory does not touch the index.<br><br>
+ *
+ * Worlds that are missing from the index fall back to the mopm_save.dat
+ * file inside the world folder that older versions wrote. Those files
+ * hold unique directory paths instead of ids; the paths are kept aside
+ * until the catalog is available to resolve them with
+ * {@link #resolveLegacyPaths(DirectoryTree)}.<br><br>
+ *
+ * <b>Layout:</b><br>
+ * <ul>
+ *     <li>int - {@link #MAGIC}</li>
+ *     <li>short - {@link #VERSION}</li>
+ *     <li>int - the number of worlds</li>
+ *     <li>rows - world folder name, folder id; one row per world</li>
+ * </ul>
+ */
+public final class WorldIndex {
+
+    //-----Consts:--------------------------------------//
+
+    /**
+     * Marks a file as a mopm world index ("MOPW").
+     */
+    public static final int MAGIC = 0x4D4F5057;
+    /**
+     * The current version of the index layout.
+     */
+    public static final short VERSION = 2;
+
+    /**
+     * The suffix of the temporary file written before replacing the index.
+     */
+    private static final String TMP_SUFFIX = "_tmp";
+
+    /**
+     * The index that belongs to the running client.
+     */
+    private static WorldIndex instance;
+
+    //-----Fields:--------------------------------------//
+
+    /**
+     * The index file.
+     */
+    private final File indexFile;
+    /**
+     * The folder id of every known world, keyed by world folder name.
+     */
+    private final Map<String, Integer> folders = new ConcurrentHashMap<>();
+    /**
+     * The unique directory path of worlds whose location was written by an
+     * older version and has not been resolved yet, keyed by world folder
+     * name.
+     */
+    private final Map<String, String> legacyPaths =
+            new ConcurrentHashMap<>();
+    /**
+     * True if the index holds changes that have not been written.
+     */
+    private volatile boolean dirty;
+
+    //-----Constructors:--------------------------------//
+
+    /**
+     * Creates an index and reads it from disk.
+     * @param indexFileIn The index file.
+     */
+    private WorldIndex(final File indexFileIn) {
+        this.indexFile = indexFileIn;
+        this.read();
+    }
+
+    //-----This:----------------------------------------//
+
+    /**
+     * @return Returns the world index of the game directory. The index is
+     * read the first time this is called.
+     */
+    public static synchronized WorldIndex instance() {
+        if (instance == null) {
+            instance = new WorldIndex(
+                    new File(
+                            Minecraft.getMinecraft().gameDir,
+                            MOPMLiterals.MOPM_WORLDS
+                    )
+            );
+        }
+        return instance;
+    }
+
+    /**
+     * @return Returns the index file.
+     */
+    public File getFile() {
+        return this.indexFile;
+    }
+
+    /**
+     * Looks up the directory a world is stored in.
+     * @param worldFileName The world folder name.
+     * @return Returns the folder id of the world's directory, or the base
+     * directory's id if the world is not indexed.
+     */
+    public int getFolderId(final String worldFileName) {
+        final Integer folderId = this.folders.get(worldFileName);
+        if (folderId == null) {
+            return CatalogFormat.BASE_FOLDER_ID;
+        }
+        return folderId;
+    }
+
+    /**
+     * Reads the mopm_save.dat file an older version wrote for a world that
+     * is not indexed yet. The path is resolved by the next
+     * {@link #resolveLegacyPaths(DirectoryTree)}. This is safe to call from
+     * the scanning threads.
+     * @param worldFileName The world folder name.
+     */
+    public void loadLegacyPath(final String worldFileName) {
+        if (this.folders.containsKey(worldFileName)
+                || this.legacyPaths.containsKey(worldFileName)) {
+            return;
+        }
+
+        final String path = readLegacyPath(worldFileName);
+        if (path != null) {
+            this.legacyPaths.putIfAbsent(worldFileName, path);
+        }
+    }
+
+    /**
+     * Turns the directory paths written by older versions into folder ids.
+     * The change is written by the next {@link #save()}.
+     * @param catalog The world catalog the paths point into.
+     */
+    public void resolveLegacyPaths(final DirectoryTree<?> catalog) {
+        final Iterator<Map.Entry<String, String>> legacy =
+                this.legacyPaths.entrySet().iterator();
+        while (legacy.hasNext()) {
+            final Map.Entry<String, String> world = legacy.next();
+            this.folders.putIfAbsent(
+                    world.getKey(),
+                    catalog.resolvePath(world.getValue())
+            );
+            legacy.remove();
+            this.dirty = true;
+        }
+    }
+
+    /**
+     * Stores the directory a world is stored in and writes the index.
+     * @param worldFileName The world folder name.
+     * @param folderId The folder id of the world's directory.
+     */
+    public void setFolder(final String worldFileName, final int folderId) {
+        this.legacyPaths.remove(worldFileName);
+        final Integer previous = this.folders.put(worldFileName, folderId);
+        if (previous == null || previous != folderId) {
+            this.dirty = true;
+        }
+        this.save();
+    }
+
+    /**
+     * Moves several worlds to the same directory and writes the index once.
+     * @param worldFileNames The world folder names.
+     * @param folderId The folder id of the new directory.
+     */
+    public void setFolders(
+            final Collection<String> worldFileNames,
+            final int folderId
+    ) {
+        for (final String worldFileName : worldFileNames) {
+            this.legacyPaths.remove(worldFileName);
+            final Integer previous = this.folders.put(worldFileName, folderId);
+            if (previous == null || previous != folderId) {
+                this.dirty = true;
+            }
+        }
+        this.save();
+    }
+
+    /**
+     * Forgets every world that is no longer on disk and writes any
+     * change, including worlds migrated since the last write.
+     * @param worldFileNames The folder names of every world on disk.
+     */
+    public void retain(final Collection<String> worldFileNames) {
+        if (this.folders.keySet().retainAll(worldFileNames)) {
+            this.dirty = true;
+        }
+        this.legacyPaths.keySet().retainAll(worldFileNames);
+        this.save();
+    }
+
+    /**
+     * Writes the index on the I/O thread if it has changed since it was
+     * last written.
+     */
+    public void save() {
+        if (!this.dirty) {
+            return;
+        }
+        this.dirty = false;
+
+        final Map<String, Integer> snapshot = new HashMap<>(this.folders);
+        BackgroundIO.execute(() -> {
+            try {
+                write(this.indexFile, snapshot);
+            } catch (IOException e) {
+                References.LOG.error("Unable to write the world index: ", e);
+            }
+        });
+    }
+
+    /**
+     * Reads the index file into memory. A missing or unreadable index is
+     * left empty so every world falls back to its mopm_save.dat file.
+     */
+    private void read() {
+        if (!this.indexFile.isFile()) {
+            return;
+        }
+
+        try (
+                DataInputStream reader =
+                        new DataInputStream(
+                                new BufferedInputStream(
+                                        new FileInputStream(this.indexFile)
+                                )
+                        )
+        ) {
+            if (reader.readInt() != MAGIC) {
+                throw new IOException("Not a mopm world index");
+            }
+            final short version = reader.readShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported index version " + version);
+            }
+
+            final int worldCount = reader.readInt();
+            for (int i = 0; i < worldCount; i++) {
+                this.folders.put(reader.readUTF(), reader.readInt());
+            }
+        } catch (IOException e) {
+            this.folders.clear();
+            References.LOG.error("Unable to read the world index: ", e);
+        }
+    }
+
+    /**
+     * Writes an index to a temporary file and moves it over the old index.
+     * @param writeTo The index file.
+     * @param worlds The folder id of every world.
+     * @throws IOException Thrown if the index could not be written.
+     */
+    private static void write(
+            final File writeTo,
+            final Map<String, Integer> worlds
+    ) throws IOException {
+        final File tmp = new File(writeTo.getPath() + TMP_SUFFIX);
+        try (
+                DataOutputStream writer =
+                        new DataOutputStream(
+                                new BufferedOutputStream(
+                                        new FileOutputStream(tmp)
+                                )
+                        )
+        ) {
+            writer.writeInt(MAGIC);
+            writer.writeShort(VERSION);
+            writer.writeInt(worlds.size());
+            for (final Map.Entry<String, Integer> world : worlds.entrySet()) {
+                writer.writeUTF(world.getKey());
+                writer.writeInt(world.getValue());
+            }
+        }
+
+        Files.move(
+                tmp.toPath(),
+                writeTo.toPath(),
+                StandardCopyOption.REPLACE_EXISTING
+        );
+    }
+
+    /**
+     * Reads the directory path an older version stored inside the world.
+     * @param worldFileName The world folder name.
+     * @return Returns the stored path or null if there is none.
+     */
+    private static String readLegacyPath(final String worldFileName) {
+        final File mopmSaveFile = Minecraft.getMinecraft()
+                .getSaveLoader()
+                .getFile(worldFileName, MOPMLiterals.MOPM_SAVE_DAT);
+        if (!mopmSaveFile.isFile()) {
+            return null;
+        }
+
+        try (
+                BufferedReader reader =
+                        new BufferedReader(
+                                new FileReader(mopmSaveFile)
+                        )
+        ) {
+            return reader.readLine();
+        } catch (IOException e) {
+            References.LOG.error("", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package zed.mopm.data;
+
+import net.minecraft.client.AnvilConverterException;
+import net.minecraft.world.storage.WorldSummary;
+import zed.mopm.util.MOPMConfig;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Reads the saves directory off the client thread. Every world's
+ * level.dat and mopm data is read as its own task on a small fork join
+ * pool, bounded by {@link MOPMConfig#scanThreads}, so a slow disk no
+ * longer freezes the world menu.<br><br>
+ *
+ * The scan only reads files; world entries must still be built on the
+ * client thread because they load textures.
+ */
+public final class WorldScanner {
+
+    //-----Consts:--------------------------------------//
+
+    /**
+     * The name prefix of the scanning threads.
+     */
+    private static final String THREAD_NAME = "MOPM Scan-";
+
+    /**
+     * The pool every scan runs on.
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool(
+            MOPMConfig.scanThreads,
+            pool -> {
+                final ForkJoinWorkerThread thread = ForkJoinPool
+                        .defaultForkJoinWorkerThreadFactory
+                        .newThread(pool);
+                thread.setName(THREAD_NAME + thread.getPoolIndex());
+                return thread;
+            },
+            null,
+            false
+    );
+
+    //-----Constructors:--------------------------------//
+
+    /**
+     * This should not be accessed.
+     */
+    private WorldScanner() { }
+
+    //-----This:----------------------------------------//
+
+    /**
+     * Starts scanning the saves directory.
+     * @return Returns a future that completes with the summary of every
+     * loadable world, in no particular order. It completes exceptionally
+     * with an {@link AnvilConverterException} if the saves directory
+     * could not be read.
+     */
+    public static CompletableFuture<List<WorldSummary>> scan() {
+        final WorldSummaryCache cache = WorldSummaryCache.instance();
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return cache.listWorldDirs();
+            } catch (AnvilConverterException e) {
+                throw new CompletionException(e);
+            }
+        }, POOL).thenCompose(worldDirs -> {
+            final List<CompletableFuture<WorldSummary>> reads =
+                    new ArrayList<>(worldDirs.length);
+            final List<String> worldFileNames =
+                    new ArrayList<>(worldDirs.length);
+            for (final File worldDir : worldDirs) {
+                worldFileNames.add(worldDir.getName());
+                reads.add(CompletableFuture.supplyAsync(
+                        () -> readWorld(worldDir),
+                        POOL
+                ));
+            }
+
+            return CompletableFuture
+                    .allOf(reads.toArray(new CompletableFuture[0]))
+                    .thenApply(done -> {
+                        cache.finishScan(worldFileNames);
+                        final List<WorldSummary> summaries =
+                                new ArrayList<>(reads.size());
+                        for (final CompletableFuture<WorldSummary> read
+                                : reads) {
+                            final WorldSummary summary = read.join();
+                            if (summary != null) {
+                                summaries.add(summary);
+                            }
+                        }
+                        return summaries;
+                    });
+        });
+    }
+
+    /**
+     * Reads everything the world list needs to know about one world. This
+     * is safe to call from any thread.
+     * @param worldDir The world folder.
+     * @return Returns the world summary or null if it is not a world.
+     */
+    public static WorldSummary readWorld(final File worldDir) {
+        final WorldSummary summary =
+                WorldSummaryCache.instance().summarize(worldDir);
+        if (summary != null) {
+            WorldIndex.instance().loadLegacyPath(summary.getFileName());
+        }
+        return summary;
+    }
+}
@@ -0,0 +1,338 @@
+package zed.mopm.data;
+
+import com.google.common.collect.ImmutableSet;
+import net.minecraft.client.AnvilConverterException;
+import net.minecraft.client.Minecraft;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.datafix.FixTypes;
+import net.minecraft.world.storage.WorldInfo;
+import net.minecraft.world.storage.WorldSummary;
+import org.apache.commons.lang3.StringUtils;
+import zed.mopm.util.CoalescingWriter;
+import zed.mopm.util.MOPMLiterals;
+import zed.mopm.util.References;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the few level.dat fields the world list shows, so a world
+ * is only parsed again after its level.dat has changed. A world's entry
+ * is reused as long as the modification time and size of its level.dat
+ * match the ones that were recorded when it was parsed.<br><br>
+ *
+ * The cache is kept in the mopm cache directory and survives restarts.
+ */
+public final class WorldSummaryCache {
+
+    //-----Consts:--------------------------------------//
+
+    /**
+     * The save version of worlds saved by 1.9 and later.
+     */
+    public static final int ANVIL_VERSION = 19133;
+    /**
+     * The save version of worlds saved before 1.9.
+     */
+    public static final int OLD_ANVIL_VERSION = 19132;
+
+    /**
+     * The level.dat tag that holds the save version.
+     */
+    private static final String SAVE_VERSION_TAG = "version";
+    /**
+     * The level.dat tag that holds the world name.
+     */
+    private static final String LEVEL_NAME_TAG = "LevelName";
+    /**
+     * The level.dat tag that holds the data version the data fixer
+     * upgrades from.
+     */
+    private static final String DATA_VERSION_TAG = "DataVersion";
+    /**
+     * The level.dat tags read by {@link WorldSummary} and the world list.
+     */
+    private static final Set<String> SUMMARY_TAGS = ImmutableSet.of(
+            SAVE_VERSION_TAG,
+            DATA_VERSION_TAG,
+            LEVEL_NAME_TAG,
+            "LastPlayed",
+            "GameType",
+            "hardcore",
+            "allowCommands",
+            "Version"
+    );
+
+    /**
+     * The cache tag holding the modification time of the level.dat.
+     */
+    private static final String MTIME_TAG = "Mtime";
+    /**
+     * The cache tag holding the size of the level.dat.
+     */
+    private static final String SIZE_TAG = "Size";
+    /**
+     * The cache tag holding the summary tags.
+     */
+    private static final String SUMMARY_TAG = "Summary";
+
+    /**
+     * The error message if the saves directory could not be read.
+     */
+    private static final String SAVES_ERR = "Unable to read or access folder "
+            + "where game worlds are saved!";
+
+    /**
+     * The cache that belongs to the running client.
+     */
+    private static WorldSummaryCache instance;
+
+    //-----Fields:--------------------------------------//
+
+    /**
+     * The directory the worlds are saved in.
+     */
+    private final File savesDir;
+    /**
+     * The cached entry of every known world, keyed by world folder name.
+     */
+    private final Map<String, NBTTagCompound> entries =
+            new ConcurrentHashMap<>();
+    /**
+     * Writes the cache file in the background.
+     */
+    private final CoalescingWriter<NBTTagCompound> writer;
+    /**
+     * True if entries changed since the cache was last written.
+     */
+    private volatile boolean dirty;
+
+    //-----Constructors:--------------------------------//
+
+    /**
+     * Creates a cache and reads it from disk.
+     * @param savesDirIn The directory the worlds are saved in.
+     * @param cacheFile The cache file.
+     */
+    private WorldSummaryCache(final File savesDirIn, final File cacheFile) {
+        this.savesDir = savesDirIn;
+        this.writer = new CoalescingWriter<>(tag -> {
+            cacheFile.getParentFile().mkdirs();
+            CompressedStreamTools.safeWrite(tag, cacheFile);
+        });
+
+        if (cacheFile.isFile()) {
+            try {
+                final NBTTagCompound cache =
+                        CompressedStreamTools.read(cacheFile);
+                if (cache != null) {
+                    for (final String world : cache.getKeySet()) {
+                        this.entries.put(world, cache.getCompoundTag(world));
+                    }
+                }
+            } catch (IOException e) {
+                References.LOG.error("Unable to read the world cache: ", e);
+            }
+        }
+    }
+
+    //-----This:----------------------------------------//
+
+    /**
+     * @return Returns the world summary cache of the game directory.
+     */
+    public static synchronized WorldSummaryCache instance() {
+        if (instance == null) {
+            final File gameDir = Minecraft.getMinecraft().gameDir;
+            instance = new WorldSummaryCache(
+                    new File(gameDir, MOPMLiterals.SAVES_DIR),
+                    new File(
+                            new File(gameDir, MOPMLiterals.MOPM_CACHE),
+                            MOPMLiterals.MOPM_SUMMARIES
+                    )
+            );
+        }
+        return instance;
+    }
+
+    /**
+     * Lists the summary of every world in the saves directory. Only worlds
+     * whose level.dat changed since the last call are parsed.
+     * @return Returns the summaries in no particular order.
+     * @throws AnvilConverterException Thrown if the saves directory
+     * could not be read.
+     */
+    public List<WorldSummary> getSaveList() throws AnvilConverterException {
+        final File[] worldDirs = this.listWorldDirs();
+        final List<WorldSummary> summaries = new ArrayList<>(worldDirs.length);
+        final List<String> worldFileNames = new ArrayList<>(worldDirs.length);
+        for (final File worldDir : worldDirs) {
+            worldFileNames.add(worldDir.getName());
+            final WorldSummary summary = this.summarize(worldDir);
+            if (summary != null) {
+                summaries.add(summary);
+            }
+        }
+
+        this.finishScan(worldFileNames);
+        return summaries;
+    }
+
+    /**
+     * @return Returns every folder in the saves directory.
+     * @throws AnvilConverterException Thrown if the saves directory
+     * could not be read.
+     */
+    public File[] listWorldDirs() throws AnvilConverterException {
+        final File[] worldDirs = this.savesDir.listFiles(File::isDirectory);
+        if (worldDirs == null) {
+            throw new AnvilConverterException(SAVES_ERR);
+        }
+        return worldDirs;
+    }
+
+    /**
+     * Forgets the worlds that were not part of a finished scan and writes
+     * the cache if anything changed during the scan.
+     * @param worldFileNames The folder names of every scanned world.
+     */
+    public void finishScan(final Collection<String> worldFileNames) {
+        if (this.entries.keySet().retainAll(worldFileNames)) {
+            this.dirty = true;
+        }
+        this.flush();
+    }
+
+    /**
+     * Writes the cache if any entry changed since it was last written.
+     */
+    public void flush() {
+        if (this.dirty) {
+            this.dirty = false;
+            this.save();
+        }
+    }
+
+    /**
+     * Summarizes one world, reading its level.dat only if it changed.
+     * This is safe to call from several threads at once.
+     * @param worldDir The world folder.
+     * @return Returns the world summary.<br>
+     * Returns null if the folder is not a world that can be loaded.
+     */
+    public WorldSummary summarize(final File worldDir) {
+        final String worldFileName = worldDir.getName();
+        File levelDat = new File(worldDir, MOPMLiterals.LEVEL_DAT);
+        if (!levelDat.isFile()) {
+            levelDat = new File(worldDir, MOPMLiterals.LEVEL_DAT_OLD);
+        }
+        if (!levelDat.isFile()) {
+            this.forget(worldFileName);
+            return null;
+        }
+
+        final long mtime = levelDat.lastModified();
+        final long size = levelDat.length();
+        NBTTagCompound entry = this.entries.get(worldFileName);
+        if (entry == null
+                || entry.getLong(MTIME_TAG) != mtime
+                || entry.getLong(SIZE_TAG) != size) {
+            final NBTTagCompound summaryTags = readSummaryTags(levelDat);
+            if (summaryTags == null) {
+                this.forget(worldFileName);
+                return null;
+            }
+            entry = new NBTTagCompound();
+            entry.setLong(MTIME_TAG, mtime);
+            entry.setLong(SIZE_TAG, size);
+            entry.setTag(SUMMARY_TAG, summaryTags);
+            this.entries.put(worldFileName, entry);
+            this.dirty = true;
+        }
+
+        return toSummary(worldFileName, entry.getCompoundTag(SUMMARY_TAG));
+    }
+
+    /**
+     * Writes the cache in the background.
+     */
+    public void save() {
+        final NBTTagCompound tag = new NBTTagCompound();
+        for (final Map.Entry<String, NBTTagCompound> entry
+                : this.entries.entrySet()) {
+            tag.setTag(entry.getKey(), entry.getValue());
+        }
+        this.writer.submit(tag);
+    }
+
+    /**
+     * Drops the entry of a world that can no longer be summarized.
+     * @param worldFileName The world folder name.
+     */
+    private void forget(final String worldFileName) {
+        if (this.entries.remove(worldFileName) != null) {
+            this.dirty = true;
+        }
+    }
+
+    /**
+     * Reads a level.dat and keeps only the tags the world list needs.
+     * @param levelDat The level.dat file.
+     * @return Returns the summary tags.<br>
+     * Returns null if the file could not be read.
+     */
+    private static NBTTagCompound readSummaryTags(final File levelDat) {
+        try {
+            return LevelSummaryReader.read(levelDat, SUMMARY_TAGS);
+        } catch (IOException | RuntimeException e) {
+            References.LOG.error("Unable to read " + levelDat, e);
+            return null;
+        }
+    }
+
+    /**
+     * Builds the vanilla world summary from the cached summary tags, the
+     * same way the vanilla save list does. The tags are upgraded by the
+     * data fixer first, like the Data compound vanilla reads; the cache
+     * keeps the tags as they were read, so a world is upgraded again
+     * with the fixes of the running game.
+     * @param worldFileName The world folder name.
+     * @param summaryTags The cached summary tags.
+     * @return Returns the world summary.<br>
+     * Returns null if the world was saved in an unsupported format.
+     */
+    private static WorldSummary toSummary(
+            final String worldFileName,
+            final NBTTagCompound summaryTags
+    ) {
+        final int saveVersion = summaryTags.getInteger(SAVE_VERSION_TAG);
+        if (saveVersion != ANVIL_VERSION && saveVersion != OLD_ANVIL_VERSION) {
+            return null;
+        }
+
+        final WorldInfo info = new WorldInfo(
+                Minecraft.getMinecraft().getDataFixer().process(
+                        FixTypes.LEVEL,
+                        summaryTags.copy()
+                )
+        );
+        String displayName = info.getWorldName();
+        if (StringUtils.isEmpty(displayName)) {
+            displayName = worldFileName;
+        }
+        return new WorldSummary(
+                info,
+                worldFileName,
+                displayName,
+                0L,
+                saveVersion != ANVIL_VERSION
+        );
+    }
+}
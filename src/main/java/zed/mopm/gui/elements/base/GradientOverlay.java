@@ -4,6 +4,7 @@ import net.minecraft.client.gui.Gui;
 import net.minecraft.client.gui.GuiScreen;
 import net.minecraftforge.client.event.GuiScreenEvent;
 import net.minecraftforge.common.MinecraftForge;
+import zed.mopm.gui.utils.QuadBatch;
 
 import static zed.mopm.gui.utils.constants.ColorConsts.PURE_BLACK;
 import static zed.mopm.gui.utils.constants.ColorConsts.TRANSPARENT;
@@ -47,7 +48,9 @@ public class GradientOverlay extends Gui {
      * @param parentIn The screen the overlay will be drawn on.
      */
     public final void draw(final GuiScreen parentIn) {
-        this.drawGradientRect(
+        final QuadBatch batch = QuadBatch.instance();
+        batch.setZLevel(this.zLevel);
+        batch.addColored(
                 0,
                 0,
                 this.width,
@@ -55,7 +58,7 @@ public class GradientOverlay extends Gui {
                 PURE_BLACK,
                 TRANSPARENT
         );
-        this.drawGradientRect(
+        batch.addColored(
                 this.width,
                 this.height,
                 0,
@@ -63,6 +66,7 @@ public class GradientOverlay extends Gui {
                 PURE_BLACK,
                 TRANSPARENT
         );
+        batch.flush();
         MinecraftForge.EVENT_BUS.post(
                 new GuiScreenEvent.BackgroundDrawnEvent(parentIn)
         );
@@ -3,6 +3,7 @@ package zed.mopm.gui.elements.buttons;
 import net.minecraft.client.Minecraft;
 import net.minecraftforge.fml.client.config.GuiButtonExt;
 import zed.mopm.api.data.Editor;
+import zed.mopm.gui.utils.QuadBatch;
 
 import static zed.mopm.gui.utils.constants.ColorConsts.*;
 
@@ -84,46 +85,44 @@ public class ContextButton extends GuiButtonExt {
                             && mouseY < this.y + this.height;
             int white = (this.hovered) ? OFF_WHITE_COLOR : TRUE_WHITE;
 
-            this.drawGradientRect(
+            final QuadBatch batch = QuadBatch.instance();
+            batch.setZLevel(this.zLevel);
+            batch.addColored(
                     this.x,
                     this.y,
                     this.x + this.width,
                     this.y + this.height,
-                    white,
                     white
             );
-            this.drawGradientRect(
+            batch.addColored(
                     this.x,
                     this.y,
                     this.x + this.width,
                     this.y + 1,
-                    OFF_BLACK_COLOR,
                     OFF_BLACK_COLOR
             );
-            this.drawGradientRect(
+            batch.addColored(
                     this.x,
                     this.y + this.height,
                     this.x + this.width,
                     this.y + this.height + 1,
-                    OFF_BLACK_COLOR,
                     OFF_BLACK_COLOR
             );
-            this.drawGradientRect(
+            batch.addColored(
                     this.x + this.width,
                     this.y,
                     this.x + this.width + 1,
                     this.y + this.height + 1,
-                    OFF_BLACK_COLOR,
                     OFF_BLACK_COLOR
             );
-            this.drawGradientRect(
+            batch.addColored(
                     this.x,
                     this.y,
                     this.x + 1,
                     this.y + this.height,
-                    OFF_BLACK_COLOR,
                     OFF_BLACK_COLOR
             );
+            batch.flush();
 
             Minecraft.getMinecraft().fontRenderer.drawString(
                     this.displayString,
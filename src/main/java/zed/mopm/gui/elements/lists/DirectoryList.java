@@ -4,13 +4,14 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiListExtended;
 import zed.mopm.api.data.IFolderPath;
 import zed.mopm.api.gui.lists.IModifiableList;
+import zed.mopm.data.CatalogFormat;
+import zed.mopm.data.CatalogWarmup;
 import zed.mopm.data.DirectoryTree;
-import zed.mopm.data.ServerEntry;
-import zed.mopm.data.WorldEntry;
 import zed.mopm.gui.menus.base.SelectMenuBase;
 import zed.mopm.gui.menus.base.ServerSelectMenu;
 import zed.mopm.gui.menus.base.WorldSelectMenu;
 import zed.mopm.gui.menus.mutators.directory.EditDirectoryMenu;
+import zed.mopm.gui.menus.mutators.directory.SelectDirectoryMenu;
 import zed.mopm.gui.utils.GuiUtils;
 import zed.mopm.util.MOPMLiterals;
 import zed.mopm.util.References;
@@ -52,13 +53,10 @@ public class DirectoryList<K extends IFolderPath>
      */
     private DirectoryTree<K> base;
     /**
-     * The current directory being looked at.
+     * The current directory being looked at. Its parent links lead back
+     * to the base directory, so they double as the current path.
      */
     private DirectoryTree<K> currentDir;
-    /**
-     * The string path of the current directory.
-     */
-    private Deque<String> currentPath = new LinkedList<>();
     /**
      * Determines if this list is a clone.
      */
@@ -90,8 +88,10 @@ public class DirectoryList<K extends IFolderPath>
             saveFile = new File(saveIn, MOPMLiterals.MOPM_SMP);
         }
 
-        base.load(saveFile);
+        base = CatalogWarmup.takeCatalog(saveFile);
+        currentDir = base;
         container = parentIn;
+        this.selectedElement = base.getDepth();
     }
 
     /**
@@ -115,17 +115,18 @@ public class DirectoryList<K extends IFolderPath>
                 0,
                 slotHeightIn
         );
-        base = new DirectoryTree(MOPMLiterals.BASE_DIR_NAME);
-        this.currentDir = base;
-        this.selectedElement = currentDir.getDepth();
     }
 
     /**
-     * Makes a deep copy of an instance of DirectoryList.
+     * Makes a picker view of an instance of DirectoryList. The view shares
+     * the directory tree of the list it was made from, so opening a picker
+     * does not copy the catalog no matter how large it is. A view only
+     * navigates; every change to the tree goes through the list that owns
+     * it, which keeps the shared tree consistent.
      *
-     * @param copyFrom a copy of the folder list
+     * @param copyFrom the folder list to view
      */
-    public DirectoryList(final DirectoryList copyFrom) {
+    public DirectoryList(final DirectoryList<K> copyFrom) {
         this(
                 copyFrom.width,
                 copyFrom.height,
@@ -135,10 +136,9 @@ public class DirectoryList<K extends IFolderPath>
         this.container = null;
         this.clone = true;
         this.headerPadding = 1;
-        this.base = new DirectoryTree(copyFrom.base);
-        this.currentDir = new DirectoryTree(copyFrom.currentDir);
-        this.currentPath = new LinkedList<>();
-        this.currentPath.addAll(copyFrom.currentPath);
+        this.base = copyFrom.base;
+        this.currentDir = copyFrom.currentDir;
+        this.selectedElement = this.base.getDepth();
     }
 
     //-----Overridden Methods:--------------------------//
@@ -166,9 +166,8 @@ public class DirectoryList<K extends IFolderPath>
     ) {
         if (isDoubleClick) {
             currentDir = currentDir.stepDown(slotIndex);
-            currentPath.push(currentDir.getUniqueName());
             if (!clone) {
-                container.refreshDirectoryEntryList();
+                container.displayDirectoryEntryList();
             }
         }
     }
@@ -200,6 +199,7 @@ public class DirectoryList<K extends IFolderPath>
         } else if (
                 mouseEvent == 1
                         && index != -1
+                        && !clone
         ) {
             this.mc.displayGuiScreen(
                     new EditDirectoryMenu<>(
@@ -289,7 +289,13 @@ public class DirectoryList<K extends IFolderPath>
 
     @Override
     public final void changeDir(final int entryIndex) {
-        //:: Todo: add ability to move directories
+        this.mc.displayGuiScreen(
+                new SelectDirectoryMenu(
+                        this.container,
+                        new FolderMove(getFolder(), entryIndex),
+                        new DirectoryList<>(this)
+                )
+        );
     }
 
     //-----This:----------------------------------------//
@@ -299,7 +305,13 @@ public class DirectoryList<K extends IFolderPath>
      */
     public final void gotoBase() {
         this.currentDir = base;
-        this.currentPath = new LinkedList<>();
+    }
+
+    /**
+     * @return Returns true if the current directory is the base directory.
+     */
+    public final boolean isAtBase() {
+        return this.currentDir == this.base;
     }
 
     /**
@@ -307,7 +319,8 @@ public class DirectoryList<K extends IFolderPath>
      * This can be used to determine if the instance in use is a clone of
      * another instance.
      *
-     * @return true if the object referenced is a deep copy.
+     * @return true if the object referenced is a view that shares the
+     * directory tree of another list.
      */
     public boolean isClone() {
         return this.clone;
@@ -328,11 +341,10 @@ public class DirectoryList<K extends IFolderPath>
      * level from the directory branch that has been moved into.
      */
     public void back() {
-        if (!currentPath.isEmpty()) {
-            currentPath.pop();
-            currentDir = getFolder();
+        if (!isAtBase()) {
+            currentDir = currentDir.getParent();
             if (!clone) {
-                container.refreshDirectoryEntryList();
+                container.displayDirectoryEntryList();
             }
         }
     }
@@ -355,15 +367,11 @@ public class DirectoryList<K extends IFolderPath>
     public final void populateDirectoryList(final List<K> entries) {
         for (K entry : entries) {
             try {
-                String populateTo = entry.getPathToDir();
-                base.folderPath(populateTo).newEntry(entry);
+                base.folderById(entry.getFolderId()).newEntry(entry);
             } catch (NoSuchElementException e) {
-                entry.setPath(MOPMLiterals.BASE_DIR);
-                if (entry instanceof WorldEntry) {
-                    DirectoryTree.writeWorldToBase(entry.getMopmSaveFile());
-                } else if (entry instanceof ServerEntry) {
-                    DirectoryTree.writeServerToBase((ServerEntry) entry);
-                }
+                //:: The folder was removed; the entry falls back to base.
+                entry.setFolderId(CatalogFormat.BASE_FOLDER_ID);
+                base.newEntry(entry);
             }
         }
     }
@@ -374,16 +382,14 @@ public class DirectoryList<K extends IFolderPath>
      * @return Returns the current directory being browsed.
      */
     public DirectoryTree<K> getFolder() {
-        String path = this.uniquePath();
+        return this.currentDir;
+    }
 
-        if (path.equals(MOPMLiterals.BASE_DIR)) {
-            return base;
-        }
-        return base.folderPath(
-                this.uniquePath()
-                        .substring((MOPMLiterals.BASE_DIR + "/").length()
-                        )
-        );
+    /**
+     * @return Returns the folder id of the directory currently in focus.
+     */
+    public final int currentFolderId() {
+        return this.getFolder().getFolderId();
     }
 
     /**
@@ -395,45 +401,27 @@ public class DirectoryList<K extends IFolderPath>
 
     /**
      * returns the path of the currently displayed directory location.
-     * use currentUniquePath() to get a functional path.
+     * The path is built from the parent links of the current directory
+     * each time it is asked for, so it is only paid for when displayed.
      *
      * @return returns a vanity path string.
      */
     public String currentPath() {
-        Deque<String> temp = new ArrayDeque<>();
-        temp.addAll(this.currentPath);
-        try {
-            String path = temp.removeLast();
-            path = path.substring(0, path.lastIndexOf('#'));
-            while (!temp.isEmpty()) {
-                String append = temp.removeLast();
-                path += "/" + append.substring(0, append.lastIndexOf('#'));
-            }
-            return MOPMLiterals.BASE_DIR_NAME + "/" + path;
-        } catch (NoSuchElementException e) {
-            return MOPMLiterals.BASE_DIR_NAME;
+        final Deque<String> names = new ArrayDeque<>();
+        for (
+                DirectoryTree<K> folder = this.currentDir;
+                folder != this.base;
+                folder = folder.getParent()
+        ) {
+            names.push(folder.displayName());
         }
-    }
 
-    /**
-     * directories with the same name might conflict with using
-     * the path for navigation. All directories have unique names
-     * that should be used for navigation.
-     *
-     * @return returns a usable, navigable path
-     */
-    public String uniquePath() {
-        Deque<String> temp = new LinkedList<>();
-        temp.addAll(this.currentPath);
-        try {
-            String path = temp.removeLast();
-            while (!temp.isEmpty()) {
-                path += "/" + temp.removeLast();
-            }
-            return MOPMLiterals.BASE_DIR + "/" + path;
-        } catch (NoSuchElementException e) {
-            return MOPMLiterals.BASE_DIR;
+        final StringBuilder path =
+                new StringBuilder(MOPMLiterals.BASE_DIR_NAME);
+        for (final String name : names) {
+            path.append('/').append(name);
         }
+        return path.toString();
     }
 
     /**
@@ -452,4 +440,78 @@ public class DirectoryList<K extends IFolderPath>
     public void print() {
         References.LOG.info("\n" + this.base);
     }
+
+    //-----FolderMove:----------------------------------//
+
+    /**
+     * Applies the directory picked in a {@link SelectDirectoryMenu} to a
+     * folder that is being moved.
+     */
+    private final class FolderMove implements IFolderPath {
+
+        /**
+         * The directory the moved folder is in.
+         */
+        private final DirectoryTree<K> from;
+        /**
+         * The index of the moved folder in its directory.
+         */
+        private final int folderIndex;
+
+        /**
+         * Creates a pending folder move.
+         * @param fromIn The directory the moved folder is in.
+         * @param folderIndexIn The index of the moved folder.
+         */
+        private FolderMove(
+                final DirectoryTree<K> fromIn,
+                final int folderIndexIn
+        ) {
+            this.from = fromIn;
+            this.folderIndex = folderIndexIn;
+        }
+
+        /**
+         * This is not in use because folders are moved by folder id.
+         * @param path The directory path that was picked.
+         */
+        @Override
+        public void setPath(final String path) {
+            // Not in use since the folder id locates the new directory.
+        }
+
+        /**
+         * Moves the folder into the picked directory.
+         * @param folderId The folder id of the picked directory.
+         */
+        @Override
+        public void setFolderId(final int folderId) {
+            try {
+                if (this.from.moveDir(
+                        this.folderIndex,
+                        base.folderById(folderId)
+                )) {
+                    save();
+                }
+            } catch (NoSuchElementException e) {
+                References.LOG.error("The picked folder no longer exists", e);
+            }
+        }
+
+        /**
+         * @return Returns the folder id of the moved folder.
+         */
+        @Override
+        public int getFolderId() {
+            return this.from.stepDown(this.folderIndex).getFolderId();
+        }
+
+        /**
+         * @return Returns null because folders have no save file.
+         */
+        @Override
+        public File getMopmSaveFile() {
+            return null;
+        }
+    }
 }
@@ -12,6 +12,8 @@ import zed.mopm.gui.menus.mutators.directory.SelectDirectoryMenu;
 import zed.mopm.gui.menus.mutators.directory.EditDirectoryMenu;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 
 public class ServerList
@@ -37,6 +39,11 @@ public class ServerList
             ServerEntry,
             ServerList
             > serverMenu;
+    /**
+     * The server list change count the directory list was last
+     * populated at.
+     */
+    private int refreshedModCount = -1;
 
     //-----Constructors:--------------------------------//
 
@@ -191,11 +198,13 @@ public class ServerList
     @Override
     public final void delete(final int entryIndex) {
         if (entryIndex != -1) {
+            final boolean fresh = this.isFresh();
             this.setSelectedIndex(entryIndex);
             this.getListEntry(entryIndex)
                     .removeServer(this.serverMenu.getDirectoryList());
             this.deleteEntryAt(entryIndex);
             this.entryListDetails.save();
+            this.showLocalChange(fresh);
             this.setSelectedIndex(entryIndex - 1);
         }
         if (this.relevantEntries.isEmpty()) {
@@ -217,7 +226,7 @@ public class ServerList
                 new SelectDirectoryMenu(
                         this.serverMenu,
                         entry,
-                        new DirectoryList(this.serverMenu.getDirectoryList())
+                        new DirectoryList<>(this.serverMenu.getDirectoryList())
                 )
         );
     }
@@ -226,11 +235,20 @@ public class ServerList
     //:::::::::::::::::::::::::::::://
 
     /**
-     * Refreshes the list of displayed entries.
+     * Merges any outside change to servers.dat into the server list and
+     * places every server entry in its directory again.
      */
     @Override
     public final void refresh() {
-        this.serverMenu.getDirectoryList()
+        final DirectoryList<ServerEntry> directoryList =
+                this.serverMenu.getDirectoryList();
+        this.entryListDetails.loadServerList();
+        this.entryListDetails.resolveLegacyPaths(
+                directoryList.getBaseFolder()
+        );
+        this.refreshedModCount = this.entryListDetails.getModCount();
+        directoryList.getBaseFolder().clearEntries();
+        directoryList
                 .populateDirectoryList(
                         this.entryListDetails.getDetails(
                                 this.serverMenu.getInvokeScreen()
@@ -238,12 +256,22 @@ public class ServerList
                 );
     }
 
+    /**
+     * @return Returns true if the server list or servers.dat changed since
+     * the directory list was last populated.
+     */
+    @Override
+    public final boolean isStale() {
+        return this.refreshedModCount != this.entryListDetails.getModCount()
+                || this.entryListDetails.hasExternalChanges();
+    }
+
     /**
      * Sets the list of server entries to display on screen.
      * @param entries The server entries to display.
      */
     @Override
-    public final void display(final List<ServerEntry> entries) {
+    public final void display(final Collection<ServerEntry> entries) {
         this.relevantEntries.clear();
         this.relevantEntries.addAll(entries);
         if (this.relevantEntries.isEmpty()) {
@@ -283,27 +311,84 @@ public class ServerList
         final int index = this.getSelectedIndex();
         if (index != -1) {
             final ServerSaveData selected = this.getSelectedServer();
-            final String oldPath = selected.getSavePath();
-            if (!oldPath.equals(data.getSavePath())) {
+            if (selected.getFolderId() != data.getFolderId()) {
                 this.getListEntry(index)
                         .removeServer(
                                 this.serverMenu.getDirectoryList()
                         );
             }
-            selected.copyFrom(data);
+            this.entryListDetails.replace(selected, data);
             selected.getServerData().pinged = false;
-            this.entryListDetails.replace(this.getWholeIndex(index), selected);
         }
     }
 
     /**
-     * Deletes a server entry.
+     * Deletes a server entry from the server list and the displayed
+     * entries.
      * @param entryIndex The index of the server entry to be deleted.
      */
     private void deleteEntryAt(final int entryIndex) {
-        this.entryListDetails.removeSaveData(this.getWholeIndex(entryIndex));
+        this.entryListDetails.removeSaveData(
+                this.relevantEntries.get(entryIndex).getServer()
+        );
         this.relevantEntries.remove(entryIndex);
-        this.updateServerList();
+    }
+
+    /**
+     * Swaps two servers in the server list and moves the entries of the
+     * current directory into the new order, without rebuilding the
+     * directory list.
+     * @param pos1 The position of the first server in the whole list.
+     * @param pos2 The new position of the first server in the whole list.
+     * @return Returns the displayed index of the moved server entry.
+     */
+    public final int moveServer(final int pos1, final int pos2) {
+        final boolean fresh = this.isFresh();
+        final ServerSaveData moved = this.entryListDetails.getDetailAt(pos1);
+        this.entryListDetails.swapServers(pos1, pos2);
+
+        final Collection<ServerEntry> entries =
+                this.serverMenu.getDirectoryList().getFolder().getEntries();
+        final List<ServerEntry> ordered = new ArrayList<>(entries);
+        ordered.sort(
+                Comparator.comparingInt(
+                        entry -> this.entryListDetails.indexOf(
+                                entry.getServer()
+                        )
+                )
+        );
+        entries.clear();
+        entries.addAll(ordered);
+        this.showLocalChange(fresh);
+
+        for (int i = 0; i < this.relevantEntries.size(); i++) {
+            if (this.relevantEntries.get(i).getServer() == moved) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return Returns true if the directory list holds every change made
+     * to the server list and servers.dat.
+     */
+    private boolean isFresh() {
+        return this.refreshedModCount == this.entryListDetails.getModCount()
+                && !this.entryListDetails.hasExternalChanges();
+    }
+
+    /**
+     * Shows the current directory again after a change that was applied
+     * to the directory list directly.
+     * @param fresh True if the directory list held every change before
+     * the local change was made; it then still does.
+     */
+    private void showLocalChange(final boolean fresh) {
+        if (fresh) {
+            this.refreshedModCount = this.entryListDetails.getModCount();
+        }
+        this.serverMenu.displayDirectoryEntryList();
     }
 
     /**
@@ -328,13 +413,14 @@ public class ServerList
     }
 
     /**
-     * @return Returns the index from a list of all of the created
-     * server entries instead of the index within the currently displayed
-     * server entry list.
+     * @param entry A server entry.
+     * @return Returns true if the entry is the selected server entry.
      */
-    public final int getWholeIndexFromSelected() {
+    public final boolean isSelectedEntry(final ServerEntry entry) {
         final int selected = this.getSelectedIndex();
-        return selected != -1 ? this.getWholeIndex(selected) : -1;
+        return selected >= 0
+                && selected < this.relevantEntries.size()
+                && this.relevantEntries.get(selected).equals(entry);
     }
 
     /**
@@ -342,6 +428,8 @@ public class ServerList
      * @return Returns the index within the list of all the server entries.
      */
     public final int getWholeIndex(final int partialIndex) {
-        return this.relevantEntries.get(partialIndex).getListIndex();
+        return this.entryListDetails.indexOf(
+                this.relevantEntries.get(partialIndex).getServer()
+        );
     }
 }
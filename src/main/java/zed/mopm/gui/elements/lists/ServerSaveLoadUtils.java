@@ -2,20 +2,31 @@ package zed.mopm.gui.elements.lists;
 
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiMultiplayer;
+import net.minecraft.client.multiplayer.ServerData;
 import net.minecraft.client.multiplayer.ServerList;
 import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
+import zed.mopm.data.CatalogFormat;
+import zed.mopm.data.DirectoryTree;
 import zed.mopm.data.ServerEntry;
 import zed.mopm.data.ServerSaveData;
+import zed.mopm.util.CoalescingWriter;
+import zed.mopm.util.MOPMConfig;
 import zed.mopm.util.MOPMLiterals;
 import zed.mopm.util.References;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static net.minecraft.client.multiplayer.ServerData.getServerDataFromNBTCompound;
 
@@ -55,6 +66,20 @@ public class ServerSaveLoadUtils
      * The error message if the servers.dat file could not be written to.
      */
     private static final String CREATE_FILE_ERR = "Failed to save server.dat";
+    /**
+     * The message logged when a save is merged with a changed servers.dat.
+     */
+    private static final String MERGE_INFO = "servers.dat was changed by "
+            + "another program; merging the changes into the save.";
+    /**
+     * Separates the parts of a server's merge key.
+     */
+    private static final String KEY_DELIM = "\n";
+    /**
+     * The state recorded before servers.dat was first read.
+     */
+    private static final Synced NOT_SYNCED =
+            new Synced(Collections.emptyMap(), -1L, -1L);
 
     //-----Fields:--------------------------------------//
 
@@ -62,6 +87,33 @@ public class ServerSaveLoadUtils
      * The list of server save data that has been loaded.
      */
     private List<ServerSaveData> servers;
+    /**
+     * Every server in the list keyed by its id.
+     */
+    private final Map<String, ServerSaveData> serversById = new HashMap<>();
+    /**
+     * The list entry of every server keyed by server id. Entries are kept
+     * across refreshes so the ping result and icon texture each one holds
+     * are not thrown away.
+     */
+    private final Map<String, ServerEntry> entriesById = new HashMap<>();
+    /**
+     * Writes the server list to the servers.dat file in the background.
+     */
+    private final CoalescingWriter<NBTTagCompound> writer =
+            new CoalescingWriter<>(this::write);
+    /**
+     * The servers.dat file as it was last read or written. It is shared
+     * by the client thread and the I/O thread and always replaced as a
+     * whole, so its records and modification time stay consistent.
+     */
+    private final AtomicReference<Synced> synced =
+            new AtomicReference<>(NOT_SYNCED);
+    /**
+     * Counts the changes made to the server list, so views built from it
+     * can tell when they are out of date.
+     */
+    private int modCount;
 
     //-----Constructors:--------------------------------//
 
@@ -72,7 +124,9 @@ public class ServerSaveLoadUtils
      */
     public ServerSaveLoadUtils(final Minecraft mcIn) {
         super(mcIn);
+        this.servers = new ArrayList<>();
         this.createDataFile();
+        this.mergeFromDisk();
     }
 
     //-----Overridden Methods:--------------------------//
@@ -81,40 +135,23 @@ public class ServerSaveLoadUtils
     //:::::::::::::::::::::::::::::://
 
     /**
-     * Loads the list of saved servers from the servers.dat file.
+     * Loads the list of saved servers from the servers.dat file. The file
+     * is only read if it changed since it was last read or written, and
+     * is then merged into the list instead of replacing it. The list is
+     * kept as is while a save is still waiting to be written, because the
+     * file on disk is older than the list.
      */
     @Override
     public final void loadServerList() {
-        try {
-            if (servers != null) {
-                this.servers.clear();
-            } else {
-                this.servers = new ArrayList<>();
-            }
-
-            NBTTagCompound nbtCompound = CompressedStreamTools.read(SAVE_DIR);
-            if (nbtCompound == null) {
-                return;
-            }
-            NBTTagList tagList = nbtCompound.getTagList(
-                    MOPMLiterals.SERVERS_TAG, SAVE_TYPE
-            );
-
-            for (int i = 0; i < tagList.tagCount(); ++i) {
-                final NBTTagCompound tagCompound = tagList.getCompoundTagAt(i);
-                if (!tagCompound.hasKey(MOPMLiterals.MOPM_SAVE)) {
-                    tagCompound.setString(MOPMLiterals.MOPM_SAVE, "");
-                }
-                this.servers.add(
-                        new ServerSaveData(
-                                getServerDataFromNBTCompound(tagCompound),
-                                tagCompound.getString(MOPMLiterals.MOPM_SAVE)
-                        )
-                );
-            }
-        } catch (Exception exception) {
-            References.LOG.error(LOAD_ERR, exception);
+        if (this.writer == null) {
+            //:: Called by the vanilla constructor before the fields are
+            //:: set; the list is loaded by this constructor instead.
+            return;
+        }
+        if (this.writer.isPending()) {
+            return;
         }
+        this.mergeFromDisk();
     }
 
     /**
@@ -144,22 +181,445 @@ public class ServerSaveLoadUtils
     //-----This:----------------------------------------//
 
     /**
-     * Saves the list of servers to the servers.dat file.
+     * Saves the list of servers to the servers.dat file. The list is
+     * captured now and written on the I/O thread
+     * {@link MOPMConfig#writeDelay} milliseconds after the first save
+     * that has not been written yet; saves requested in the meantime
+     * replace the captured list.
+     * Changes made to the file by other programs are merged in first.
      */
     public final void save() {
-        try {
-            final NBTTagList writeList = new NBTTagList();
-            for (final ServerSaveData data : servers) {
-                writeList.appendTag(data.getNBTSaveData());
+        this.mergeFromDisk();
+
+        final NBTTagList writeList = new NBTTagList();
+        for (final ServerSaveData data : servers) {
+            writeList.appendTag(data.getNBTSaveData());
+        }
+        final NBTTagCompound write = new NBTTagCompound();
+        write.setTag(MOPMLiterals.SERVERS_TAG, writeList);
+        this.writer.submit(write);
+        this.modCount++;
+    }
+
+    /**
+     * @return Returns true if servers.dat was changed by another program
+     * since it was last read or written.
+     */
+    public final boolean hasExternalChanges() {
+        return !this.synced.get().matchesDisk();
+    }
+
+    /**
+     * Writes a captured server list to the servers.dat file. If another
+     * program changed the file since it was last read or written, the
+     * change is merged into the captured list here, on the I/O thread,
+     * and the result is written. The merge does not need the client
+     * thread, so a change is not lost when this runs as the game shuts
+     * down.
+     * @param write The captured server list.
+     */
+    private void write(final NBTTagCompound write) {
+        final Synced previous = this.synced.get();
+        final NBTTagList captured = write.getTagList(
+                MOPMLiterals.SERVERS_TAG,
+                SAVE_TYPE
+        );
+        NBTTagList written = captured;
+        if (!previous.matchesDisk()) {
+            final NBTTagList disk = readDisk();
+            if (disk != null) {
+                References.LOG.info(MERGE_INFO);
+                written = mergeRecords(previous.records, captured, disk);
             }
-            final NBTTagCompound write = new NBTTagCompound();
-            write.setTag(MOPMLiterals.SERVERS_TAG, writeList);
-            CompressedStreamTools.safeWrite(write, SAVE_DIR);
+        }
+
+        final NBTTagCompound nbt = new NBTTagCompound();
+        nbt.setTag(MOPMLiterals.SERVERS_TAG, written);
+        try {
+            CompressedStreamTools.safeWrite(nbt, SAVE_DIR);
         } catch (IOException e) {
             References.LOG.error(SAVE_ERR, e);
+            return;
+        }
+        if (written == captured) {
+            this.synced.set(new Synced(
+                    keyTags(captured),
+                    SAVE_DIR.lastModified(),
+                    SAVE_DIR.length()
+            ));
+        } else {
+            //:: The list does not hold the merged changes yet. Recording
+            //:: the captured records without a file state makes the
+            //:: client thread merge the written file into the list, with
+            //:: the captured records as the common ancestor.
+            this.synced.set(new Synced(
+                    keyTags(captured),
+                    NOT_SYNCED.mtime,
+                    NOT_SYNCED.length
+            ));
         }
     }
 
+    /**
+     * Merges the records of servers.dat into a captured server list the
+     * same way {@link #mergeFromDisk()} merges them into the list, but on
+     * the records alone so it can run on the I/O thread.
+     * @param base The records the captured list and the file were both
+     * changed from.
+     * @param captured The captured server list.
+     * @param disk The records of servers.dat.
+     * @return Returns the merged records.
+     */
+    private static NBTTagList mergeRecords(
+            final Map<String, NBTTagCompound> base,
+            final NBTTagList captured,
+            final NBTTagList disk
+    ) {
+        final Map<String, NBTTagCompound> capturedById = keyTags(captured);
+        final Map<String, NBTTagCompound> capturedByName = new HashMap<>();
+        for (int i = 0; i < captured.tagCount(); ++i) {
+            final NBTTagCompound tagCompound = captured.getCompoundTagAt(i);
+            capturedByName.put(
+                    uniqueKey(tagCompound, capturedByName),
+                    tagCompound
+            );
+        }
+        final Map<String, NBTTagCompound> external = new LinkedHashMap<>();
+        final Map<String, NBTTagCompound> externalByName = new HashMap<>();
+        for (int i = 0; i < disk.tagCount(); ++i) {
+            final NBTTagCompound tagCompound = disk.getCompoundTagAt(i).copy();
+            final String nameKey = uniqueKey(tagCompound, externalByName);
+            if (tagCompound.hasKey(MOPMLiterals.MOPM_ID)) {
+                adoptTags(
+                        tagCompound,
+                        capturedById.get(
+                                tagCompound.getString(MOPMLiterals.MOPM_ID)
+                        )
+                );
+            } else {
+                adoptTags(tagCompound, capturedByName.get(nameKey));
+            }
+            if (external.containsKey(
+                    tagCompound.getString(MOPMLiterals.MOPM_ID))) {
+                //:: A copied record; it becomes a server of its own.
+                tagCompound.setString(
+                        MOPMLiterals.MOPM_ID,
+                        UUID.randomUUID().toString()
+                );
+            }
+            external.put(
+                    tagCompound.getString(MOPMLiterals.MOPM_ID),
+                    tagCompound
+            );
+            externalByName.put(nameKey, tagCompound);
+        }
+
+        final NBTTagList merged = new NBTTagList();
+        for (int i = 0; i < captured.tagCount(); ++i) {
+            final NBTTagCompound mine = captured.getCompoundTagAt(i);
+            final String id = mine.getString(MOPMLiterals.MOPM_ID);
+            final NBTTagCompound mineBase = base.get(id);
+            final boolean editedHere = !mine.equals(mineBase);
+            final NBTTagCompound theirs = external.remove(id);
+            if (theirs == null) {
+                if (mineBase == null || editedHere) {
+                    merged.appendTag(mine);
+                }
+            } else if (!editedHere && !theirs.equals(mineBase)) {
+                merged.appendTag(theirs);
+            } else {
+                merged.appendTag(mine);
+            }
+        }
+        for (final Map.Entry<String, NBTTagCompound> entry
+                : external.entrySet()) {
+            if (!base.containsKey(entry.getKey())) {
+                merged.appendTag(entry.getValue());
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Gives a servers.dat record written without the mopm tags the id,
+     * folder and icon of the matching captured record, the same way
+     * {@link #readSaveData} does for the list. A record with no match
+     * gets a new id.
+     * @param tagCompound The servers.dat record.
+     * @param fallback The matching captured record, or null.
+     */
+    private static void adoptTags(
+            final NBTTagCompound tagCompound,
+            final NBTTagCompound fallback
+    ) {
+        if (fallback == null) {
+            if (!tagCompound.hasKey(MOPMLiterals.MOPM_ID)) {
+                tagCompound.setString(
+                        MOPMLiterals.MOPM_ID,
+                        UUID.randomUUID().toString()
+                );
+            }
+            return;
+        }
+
+        copyTag(fallback, tagCompound, MOPMLiterals.MOPM_ID);
+        if (!tagCompound.hasKey(MOPMLiterals.MOPM_FOLDER)
+                && !tagCompound.hasKey(MOPMLiterals.MOPM_SAVE)) {
+            copyTag(fallback, tagCompound, MOPMLiterals.MOPM_FOLDER);
+            copyTag(fallback, tagCompound, MOPMLiterals.MOPM_SAVE);
+        }
+        if (!tagCompound.hasKey(MOPMLiterals.SERVER_ICON_TAG)) {
+            copyTag(fallback, tagCompound, MOPMLiterals.MOPM_ICON);
+        }
+    }
+
+    /**
+     * Copies a tag the target does not have yet.
+     * @param from The compound to copy from.
+     * @param to The compound to copy to.
+     * @param key The key of the tag.
+     */
+    private static void copyTag(
+            final NBTTagCompound from,
+            final NBTTagCompound to,
+            final String key
+    ) {
+        if (from.hasKey(key) && !to.hasKey(key)) {
+            to.setTag(key, from.getTag(key).copy());
+        }
+    }
+
+    /**
+     * Reads the records of the servers.dat file.
+     * @return Returns the records, or null if the file could not be read.
+     */
+    private static NBTTagList readDisk() {
+        final NBTTagCompound nbtCompound;
+        try {
+            nbtCompound = CompressedStreamTools.read(SAVE_DIR);
+        } catch (IOException exception) {
+            References.LOG.error(LOAD_ERR, exception);
+            return null;
+        }
+        if (nbtCompound == null) {
+            return null;
+        }
+        return nbtCompound.getTagList(MOPMLiterals.SERVERS_TAG, SAVE_TYPE);
+    }
+
+    /**
+     * Reads servers.dat if it changed since it was last read or written
+     * and merges it into the server list, keyed by server id. Records
+     * written without an id, such as by the vanilla server list, are
+     * matched to the list by server name and address instead. Only
+     * records that changed on one side are touched: a record changed
+     * only on disk is updated in place, records added or removed on disk
+     * are added or removed, and records changed in the list are kept.
+     * Folder assignments and icons are kept for records that were written
+     * without the mopm tags.
+     */
+    private void mergeFromDisk() {
+        final Synced previous = this.synced.get();
+        final long mtime = SAVE_DIR.lastModified();
+        final long length = SAVE_DIR.length();
+        if (previous.matches(mtime, length)) {
+            return;
+        }
+
+        final NBTTagList tagList = readDisk();
+        if (tagList == null) {
+            return;
+        }
+
+        final Map<String, ServerSaveData> localByName = new HashMap<>();
+        for (final ServerSaveData data : this.servers) {
+            localByName.put(uniqueKey(data.getServerData(), localByName), data);
+        }
+        final Map<String, ServerSaveData> external = new LinkedHashMap<>();
+        final Map<String, ServerSaveData> externalByName = new HashMap<>();
+        for (int i = 0; i < tagList.tagCount(); ++i) {
+            final NBTTagCompound tagCompound = tagList.getCompoundTagAt(i);
+            final ServerData serverData =
+                    getServerDataFromNBTCompound(tagCompound);
+            final String nameKey = uniqueKey(serverData, externalByName);
+
+            final ServerSaveData fallback;
+            if (tagCompound.hasKey(MOPMLiterals.MOPM_ID)) {
+                fallback = this.serversById.get(
+                        tagCompound.getString(MOPMLiterals.MOPM_ID)
+                );
+            } else {
+                fallback = localByName.get(nameKey);
+            }
+            final ServerSaveData data =
+                    readSaveData(tagCompound, serverData, fallback);
+            if (external.containsKey(data.getId())) {
+                //:: A copied record; it becomes a server of its own.
+                data.setId(null);
+            }
+            external.put(data.getId(), data);
+            externalByName.put(nameKey, data);
+        }
+        final Map<String, NBTTagCompound> disk = new HashMap<>();
+        for (final Map.Entry<String, ServerSaveData> entry
+                : external.entrySet()) {
+            disk.put(entry.getKey(), entry.getValue().getNBTSaveData());
+        }
+
+        final Map<String, NBTTagCompound> base = previous.records;
+        final List<ServerSaveData> merged = new ArrayList<>();
+        boolean changed = false;
+        for (final ServerSaveData mine : this.servers) {
+            final String id = mine.getId();
+            final NBTTagCompound mineBase = base.get(id);
+            final boolean editedHere =
+                    !mine.getNBTSaveData().equals(mineBase);
+            final ServerSaveData theirs = external.remove(id);
+            if (theirs == null) {
+                if (mineBase == null || editedHere) {
+                    merged.add(mine);
+                } else {
+                    changed = true;
+                }
+            } else {
+                if (!editedHere && !disk.get(id).equals(mineBase)) {
+                    mine.copyFrom(theirs);
+                    changed = true;
+                }
+                merged.add(mine);
+            }
+        }
+        for (final Map.Entry<String, ServerSaveData> entry
+                : external.entrySet()) {
+            if (!base.containsKey(entry.getKey())) {
+                merged.add(entry.getValue());
+                changed = true;
+            }
+        }
+
+        this.servers.clear();
+        this.servers.addAll(merged);
+        this.serversById.clear();
+        for (final ServerSaveData data : merged) {
+            this.serversById.put(data.getId(), data);
+        }
+        //:: A write that finished meanwhile recorded a newer state.
+        this.synced.compareAndSet(
+                previous,
+                new Synced(disk, mtime, length)
+        );
+        if (changed) {
+            this.modCount++;
+        }
+    }
+
+    /**
+     * Builds the save data of a servers.dat record. Records written
+     * without the mopm tags keep the id, folder and icon of the matching
+     * record in the list.
+     * @param tagCompound The servers.dat record.
+     * @param serverData The vanilla server data of the record.
+     * @param fallback The matching record in the list, or null.
+     * @return Returns the save data.
+     */
+    private static ServerSaveData readSaveData(
+            final NBTTagCompound tagCompound,
+            final ServerData serverData,
+            final ServerSaveData fallback
+    ) {
+        final ServerSaveData data = new ServerSaveData(
+                serverData,
+                CatalogFormat.BASE_FOLDER_ID
+        );
+        if (tagCompound.hasKey(MOPMLiterals.MOPM_ID)) {
+            data.setId(tagCompound.getString(MOPMLiterals.MOPM_ID));
+        } else if (fallback != null) {
+            data.setId(fallback.getId());
+        }
+
+        if (tagCompound.hasKey(MOPMLiterals.MOPM_FOLDER)) {
+            data.setFolderId(
+                    tagCompound.getInteger(MOPMLiterals.MOPM_FOLDER)
+            );
+        } else if (tagCompound.hasKey(MOPMLiterals.MOPM_SAVE)) {
+            data.setLegacyPath(tagCompound.getString(MOPMLiterals.MOPM_SAVE));
+        } else if (fallback != null) {
+            data.copyLocationFrom(fallback);
+        }
+
+        if (tagCompound.hasKey(MOPMLiterals.MOPM_ICON)) {
+            data.setIconHash(tagCompound.getString(MOPMLiterals.MOPM_ICON));
+        } else if (fallback != null
+                && !tagCompound.hasKey(MOPMLiterals.SERVER_ICON_TAG)) {
+            data.setIconHash(fallback.getIconHash());
+        }
+        return data;
+    }
+
+    /**
+     * Keys the records of a written server list the same way
+     * {@link #mergeFromDisk()} keys the list.
+     * @param tagList The written records.
+     * @return Returns the records keyed by server id.
+     */
+    private static Map<String, NBTTagCompound> keyTags(
+            final NBTTagList tagList
+    ) {
+        final Map<String, NBTTagCompound> keyed = new HashMap<>();
+        for (int i = 0; i < tagList.tagCount(); ++i) {
+            final NBTTagCompound tagCompound = tagList.getCompoundTagAt(i);
+            keyed.put(tagCompound.getString(MOPMLiterals.MOPM_ID), tagCompound);
+        }
+        return keyed;
+    }
+
+    /**
+     * @param serverData The vanilla server data.
+     * @param taken The keys that are already in use.
+     * @return Returns the key a server is matched by when it has no id.
+     */
+    private static String uniqueKey(
+            final ServerData serverData,
+            final Map<String, ?> taken
+    ) {
+        return uniqueKey(serverData.serverName, serverData.serverIP, taken);
+    }
+
+    /**
+     * @param tagCompound A servers.dat record.
+     * @param taken The keys that are already in use.
+     * @return Returns the key a record is matched by when it has no id.
+     */
+    private static String uniqueKey(
+            final NBTTagCompound tagCompound,
+            final Map<String, ?> taken
+    ) {
+        return uniqueKey(
+                tagCompound.getString(MOPMLiterals.SERVER_NAME_TAG),
+                tagCompound.getString(MOPMLiterals.SERVER_IP_TAG),
+                taken
+        );
+    }
+
+    /**
+     * @param name The name of the server.
+     * @param address The address of the server.
+     * @param taken The keys that are already in use.
+     * @return Returns the key a server is matched by when it has no id.
+     */
+    private static String uniqueKey(
+            final String name,
+            final String address,
+            final Map<String, ?> taken
+    ) {
+        final String key = name + KEY_DELIM + address;
+        String unique = key;
+        for (int i = 1; taken.containsKey(unique); i++) {
+            unique = key + KEY_DELIM + i;
+        }
+        return unique;
+    }
+
     /**
      * Adds a server save data to the save list.
      * @param data The data to be added to the save list.
@@ -167,39 +627,96 @@ public class ServerSaveLoadUtils
     public final void addSaveData(final ServerSaveData data) {
         final ServerSaveData newData = new ServerSaveData(data);
         servers.add(newData);
+        this.serversById.put(newData.getId(), newData);
+        this.modCount++;
     }
 
     /**
      * Removes server save data from the save data list.
-     * @param index The index of the server save data to be removed.
+     * @param data The server save data to be removed.
      */
-    public final void removeSaveData(final int index) {
-        this.servers.remove(index);
+    public final void removeSaveData(final ServerSaveData data) {
+        if (this.serversById.remove(data.getId()) != null) {
+            this.servers.remove(data);
+            this.modCount++;
+        }
     }
 
     /**
      * Replaces save data in the list with new save data information.
-     * @param replaceAt The index of the save data to replace.
+     * @param replaced The save data in the list to replace.
      * @param data The new save data.
      */
-    public final void replace(final int replaceAt, final ServerSaveData data) {
-        this.servers.get(replaceAt).copyFrom(data);
+    public final void replace(
+            final ServerSaveData replaced,
+            final ServerSaveData data
+    ) {
+        replaced.copyFrom(data);
+        this.modCount++;
     }
 
     /**
+     * Lists an entry for every server. A server keeps the entry it was
+     * given before as long as its save data is the same object; edits and
+     * merged changes update that object in place, so the entry follows
+     * them. Entries of servers that left the list are dropped.
      * @param listScreen The server selection menu.
      * @return Returns the list of save data.
      */
     public final List<ServerEntry> getDetails(final GuiMultiplayer listScreen) {
         final List<ServerEntry> loadInServer = new ArrayList<>();
-        int i = 0;
         for (final ServerSaveData data : this.servers) {
-            loadInServer.add(new ServerEntry(listScreen, data, i));
-            i++;
+            ServerEntry entry = this.entriesById.get(data.getId());
+            if (entry == null || entry.getServer() != data) {
+                entry = new ServerEntry(listScreen, data);
+                this.entriesById.put(data.getId(), entry);
+            }
+            loadInServer.add(entry);
         }
+        this.entriesById.keySet().retainAll(this.serversById.keySet());
         return loadInServer;
     }
 
+    /**
+     * Turns the directory paths older versions stored for servers into
+     * folder ids, and saves the list if any were found.
+     * @param catalog The server catalog the paths point into.
+     */
+    public final void resolveLegacyPaths(final DirectoryTree<?> catalog) {
+        boolean resolved = false;
+        for (final ServerSaveData data : this.servers) {
+            resolved |= data.resolveLegacyPath(catalog);
+        }
+        if (resolved) {
+            this.save();
+        }
+    }
+
+    /**
+     * @return Returns the number of changes made to the server list.
+     */
+    public final int getModCount() {
+        return this.modCount;
+    }
+
+    /**
+     * @param id The id of a server.
+     * @return Returns the server save data with the id, or null if the
+     * list has no such server.
+     */
+    public final ServerSaveData getById(final String id) {
+        return this.serversById.get(id);
+    }
+
+    /**
+     * @param data Server save data in the list.
+     * @return Returns the position of the server within the list, or -1
+     * if it is not in the list.
+     */
+    public final int indexOf(final ServerSaveData data) {
+        return this.servers.indexOf(data);
+    }
+
     /**
      * Gets server save data at a provided index.
      * @param index The index of the server save data list to get.
@@ -223,4 +740,62 @@ public class ServerSaveLoadUtils
             }
         }
     }
+
+    //-----Synced:--------------------------------------//
+
+    /**
+     * The servers.dat file as it was last read or written.
+     */
+    private static final class Synced {
+
+        /**
+         * The records of the file keyed by server id. This is the common
+         * ancestor changes on disk and changes in the list are merged
+         * against.
+         */
+        private final Map<String, NBTTagCompound> records;
+        /**
+         * The modification time of the file.
+         */
+        private final long mtime;
+        /**
+         * The length of the file in bytes. File systems that store
+         * modification times in whole seconds or coarser can miss a
+         * change made right after a write; a changed length still
+         * shows it.
+         */
+        private final long length;
+
+        /**
+         * Records the state of the file.
+         * @param recordsIn The records of the file keyed by server id.
+         * @param mtimeIn The modification time of the file.
+         * @param lengthIn The length of the file in bytes.
+         */
+        private Synced(
+                final Map<String, NBTTagCompound> recordsIn,
+                final long mtimeIn,
+                final long lengthIn
+        ) {
+            this.records = recordsIn;
+            this.mtime = mtimeIn;
+            this.length = lengthIn;
+        }
+
+        /**
+         * @param mtimeIn The modification time of the file on disk.
+         * @param lengthIn The length of the file on disk.
+         * @return Returns true if the file on disk is the recorded one.
+         */
+        private boolean matches(final long mtimeIn, final long lengthIn) {
+            return this.mtime == mtimeIn && this.length == lengthIn;
+        }
+
+        /**
+         * @return Returns true if servers.dat on disk is the recorded one.
+         */
+        private boolean matchesDisk() {
+            return this.matches(SAVE_DIR.lastModified(), SAVE_DIR.length());
+        }
+    }
 }
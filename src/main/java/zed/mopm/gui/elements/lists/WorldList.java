@@ -1,30 +1,49 @@
 package zed.mopm.gui.elements.lists;
 
-import net.minecraft.client.AnvilConverterException;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.FontRenderer;
 import net.minecraft.client.gui.GuiErrorScreen;
 import net.minecraft.client.gui.GuiListWorldSelection;
 import net.minecraft.client.resources.I18n;
-import net.minecraft.world.storage.ISaveFormat;
 import net.minecraft.world.storage.WorldSummary;
 import zed.mopm.api.gui.lists.IListType;
 import zed.mopm.api.gui.lists.IModifiableList;
+import zed.mopm.data.CatalogWarmup;
+import zed.mopm.data.DirectoryTree;
+import zed.mopm.data.SavesWatcher;
 import zed.mopm.data.WorldEntry;
+import zed.mopm.data.WorldIconCache;
+import zed.mopm.data.WorldIndex;
+import zed.mopm.data.WorldScanner;
+import zed.mopm.data.WorldSummaryCache;
 import zed.mopm.gui.menus.base.SelectMenuBase;
 import zed.mopm.gui.menus.base.WorldSelectMenu;
 import zed.mopm.gui.menus.mutators.directory.SelectDirectoryMenu;
 import zed.mopm.gui.menus.mutators.directory.EditDirectoryMenu;
+import zed.mopm.util.MOPMLiterals;
 import zed.mopm.util.References;
 
 import javax.annotation.Nullable;
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static zed.mopm.gui.utils.constants.ColorConsts.PURE_WHITE;
 
 public class WorldList
         extends GuiListWorldSelection
         implements IModifiableList,
-        IListType<WorldEntry> {
+        IListType<WorldEntry>,
+        SavesWatcher.Listener {
 
     //-----Consts:--------------------------------------//
 
@@ -37,6 +56,18 @@ public class WorldList
      * a world.
      */
     private static final String ERR_LANG = "selectWorld.unable_to_load";
+    /**
+     * The notice shown while the saves directory is being scanned.
+     */
+    private static final String SCANNING = "Scanning worlds...";
+    /**
+     * The space between the top of the list and the scanning notice.
+     */
+    private static final int SCANNING_PADDING = 4;
+    /**
+     * The part of a slot's height left empty below its entry.
+     */
+    private static final int SLOT_PADDING = 4;
 
     //-----Fields:--------------------------------------//
 
@@ -56,6 +87,33 @@ public class WorldList
      * The list of world entries currently being displayed.
      */
     private List<WorldEntry> relevantEntries = new ArrayList<>();
+    /**
+     * The world entries inside the list bounds, kept to avoid allocating
+     * a list every frame.
+     */
+    private final List<WorldEntry> visibleEntries = new ArrayList<>();
+    /**
+     * The number of scans that have been started.
+     */
+    private int scanCount;
+    /**
+     * True while a scan of the saves directory is running.
+     */
+    private boolean scanning;
+    /**
+     * The modification time of the saves directory when the last scan
+     * started.
+     */
+    private long scannedSavesMtime;
+    /**
+     * True if the world entries no longer match the saves directory.
+     */
+    private boolean stale = true;
+    /**
+     * Watches the saves directory while the world menu is shown, or null
+     * while it is not.
+     */
+    private SavesWatcher watcher;
 
     //-----Constructors:--------------------------------//
 
@@ -84,7 +142,14 @@ public class WorldList
                 slotHeightIn
         );
         this.worldMenu = worldSelection;
-        refreshList();
+
+        final CompletableFuture<List<WorldSummary>> warmScan =
+                CatalogWarmup.takeWorldScan();
+        if (warmScan != null) {
+            this.mergeWhenDone(warmScan);
+        } else {
+            refreshList();
+        }
     }
 
     //-----Overridden Methods:--------------------------//
@@ -93,46 +158,77 @@ public class WorldList
     //:::::::::::::::::::::::::::::://
 
     /**
-     * Refreshes the world list and populates the full world entry
-     * list.
+     * Starts rescanning the saves directory. The scan runs in the
+     * background and its result is merged into the full world entry list
+     * on the client thread; until then the list shows a scanning notice.
      */
     @Override
     public final void refreshList() {
         if (this.entryList != null && this.worldMenu != null) {
-            this.entryList.clear();
-            ISaveFormat isaveformat = this.mc.getSaveLoader();
-            List<WorldSummary> list;
-
-            try {
-                list = isaveformat.getSaveList();
-            } catch (AnvilConverterException anvilconverterexception) {
-                References.LOG.error(
-                        LEVEL_LOAD_ERR,
-                        anvilconverterexception
-                );
-                this.mc.displayGuiScreen(
-                        new GuiErrorScreen(
-                                I18n.format(ERR_LANG),
-                                anvilconverterexception.getMessage()
-                        )
-                );
-                return;
-            }
+            this.mergeWhenDone(WorldScanner.scan());
+        }
+    }
+
+    /**
+     * Draws the world list along with a notice while a scan is running.
+     * @param mouseXIn The x position of the mouse.
+     * @param mouseYIn The y position of the mouse.
+     * @param partialTicks The partial game ticks.
+     */
+    @Override
+    public final void drawScreen(
+            final int mouseXIn,
+            final int mouseYIn,
+            final float partialTicks
+    ) {
+        super.drawScreen(mouseXIn, mouseYIn, partialTicks);
+        if (this.scanning) {
+            final FontRenderer font = this.mc.fontRenderer;
+            font.drawStringWithShadow(
+                    SCANNING,
+                    (this.left + this.right - font.getStringWidth(SCANNING))
+                            / 2f,
+                    this.top + SCANNING_PADDING,
+                    PURE_WHITE
+            );
+        }
+    }
 
-            Collections.sort(list);
+    /**
+     * Draws the world entries, then the icons of the entries inside the
+     * list bounds all at once so icons sharing an atlas page are drawn
+     * with a single bind.
+     * @param insideLeft The x location of the entries.
+     * @param insideTop The y location of the first entry.
+     * @param mouseXIn The x position of the mouse.
+     * @param mouseYIn The y position of the mouse.
+     * @param partialTicks The partial game ticks.
+     */
+    @Override
+    protected final void drawSelectionBox(
+            final int insideLeft,
+            final int insideTop,
+            final int mouseXIn,
+            final int mouseYIn,
+            final float partialTicks
+    ) {
+        super.drawSelectionBox(
+                insideLeft,
+                insideTop,
+                mouseXIn,
+                mouseYIn,
+                partialTicks
+        );
 
-            for (WorldSummary worldsummary : list) {
-                this.entryList.add(
-                        new WorldEntry(
-                                this,
-                                worldsummary,
-                                this.mc.getSaveLoader()
-                        )
-                );
+        this.visibleEntries.clear();
+        for (int i = 0; i < this.getSize(); i++) {
+            final int y = insideTop + i * this.slotHeight + this.headerPadding;
+            if (y <= this.bottom
+                    && y + this.slotHeight - SLOT_PADDING >= this.top) {
+                this.visibleEntries.add(this.getListEntry(i));
             }
-
-            worldMenu.getDirectoryList().populateDirectoryList(entryList);
         }
+        WorldIconCache.instance().drawIcons(this.visibleEntries);
     }
 
     /**
@@ -210,6 +306,7 @@ public class WorldList
     @Override
     public final void rename(final int entryIndex, final String name) {
         this.getListEntry(entryIndex).rename(name);
+        this.invalidate();
     }
 
     /**
@@ -236,7 +333,7 @@ public class WorldList
                 new SelectDirectoryMenu(
                         this.worldMenu,
                         entry,
-                        new DirectoryList(this.worldMenu.getDirectoryList())
+                        new DirectoryList<>(this.worldMenu.getDirectoryList())
                 )
         );
     }
@@ -252,20 +349,229 @@ public class WorldList
         this.refreshList();
     }
 
+    /**
+     * @return Returns true if the list was invalidated or a world folder
+     * was added, removed or renamed since the last scan.
+     */
+    @Override
+    public final boolean isStale() {
+        return this.stale
+                || this.savesDir().lastModified() != this.scannedSavesMtime;
+    }
+
     /**
      * Sets the list of currently displayed world entry.
      * @param entries The list of entries to display.
      */
     @Override
-    public final void display(final List<WorldEntry> entries) {
-        Collections.sort(entries);
+    public final void display(final Collection<WorldEntry> entries) {
         relevantEntries.clear();
         relevantEntries.addAll(entries);
+        Collections.sort(relevantEntries);
+    }
+
+    //:: SavesWatcher.Listener
+    //:::::::::::::::::::::::::::::://
+
+    /**
+     * Reads the worlds that changed on disk and merges them into the
+     * world list on the client thread.
+     * @param worldFileNames The folder names of the changed worlds.
+     */
+    @Override
+    public final void worldsChanged(final Set<String> worldFileNames) {
+        final Map<String, WorldSummary> changed = new HashMap<>();
+        for (final String worldFileName : worldFileNames) {
+            changed.put(
+                    worldFileName,
+                    WorldScanner.readWorld(
+                            new File(this.savesDir(), worldFileName)
+                    )
+            );
+        }
+        WorldSummaryCache.instance().flush();
+        this.mc.addScheduledTask(() -> this.mergeChanges(changed));
     }
 
+    /**
+     * Rescans the saves directory because changes were lost.
+     */
+    @Override
+    public final void overflowed() {
+        this.mc.addScheduledTask(this::refreshList);
+    }
 
     //-----This:----------------------------------------//
 
+    /**
+     * Merges a running scan into the world list on the client thread once
+     * it finishes. The scan replaces any scan that is still running.
+     * @param worldScan The running scan.
+     */
+    private void mergeWhenDone(
+            final CompletableFuture<List<WorldSummary>> worldScan
+    ) {
+        final int scan = ++this.scanCount;
+        this.scanning = true;
+        this.stale = false;
+        this.scannedSavesMtime = this.savesDir().lastModified();
+        worldScan.whenComplete(
+                (summaries, error) -> this.mc.addScheduledTask(
+                        () -> this.mergeScan(scan, summaries, error)
+                )
+        );
+    }
+
+    /**
+     * Replaces the full world entry list with the result of a scan and
+     * shows the entries of the current directory again.
+     * @param scan The number of the scan that finished.
+     * @param summaries The world summaries found by the scan.
+     * @param error The error the scan failed with, or null.
+     */
+    private void mergeScan(
+            final int scan,
+            final List<WorldSummary> summaries,
+            final Throwable error
+    ) {
+        if (scan != this.scanCount) {
+            //:: A newer scan has been started; its result will be merged.
+            return;
+        }
+        this.scanning = false;
+
+        if (error != null) {
+            Throwable cause = error;
+            if (cause instanceof CompletionException) {
+                cause = cause.getCause();
+            }
+            References.LOG.error(LEVEL_LOAD_ERR, cause);
+            this.mc.displayGuiScreen(
+                    new GuiErrorScreen(
+                            I18n.format(ERR_LANG),
+                            cause.getMessage()
+                    )
+            );
+            return;
+        }
+
+        final DirectoryList<WorldEntry> directoryList =
+                this.worldMenu.getDirectoryList();
+        WorldIndex.instance().resolveLegacyPaths(
+                directoryList.getBaseFolder()
+        );
+
+        Collections.sort(summaries);
+        this.entryList.clear();
+        final List<String> worldFileNames =
+                new ArrayList<>(summaries.size());
+        for (final WorldSummary worldsummary : summaries) {
+            worldFileNames.add(worldsummary.getFileName());
+            this.entryList.add(
+                    new WorldEntry(
+                            this,
+                            worldsummary,
+                            this.mc.getSaveLoader()
+                    )
+            );
+        }
+        WorldIndex.instance().retain(worldFileNames);
+
+        directoryList.getBaseFolder().clearEntries();
+        directoryList.populateDirectoryList(this.entryList);
+        this.display(directoryList.getFolder().getEntries());
+    }
+
+    /**
+     * Replaces the entries of the worlds that changed on disk without
+     * rebuilding the rest of the world list.
+     * @param changed The summary of every changed world, or null for the
+     * worlds that were removed or can no longer be loaded.
+     */
+    private void mergeChanges(final Map<String, WorldSummary> changed) {
+        if (this.scanning) {
+            //:: The running scan may have missed the changes.
+            this.refreshList();
+            return;
+        }
+
+        final DirectoryList<WorldEntry> directoryList =
+                this.worldMenu.getDirectoryList();
+        final DirectoryTree<WorldEntry> base = directoryList.getBaseFolder();
+        final Iterator<WorldEntry> entries = this.entryList.iterator();
+        while (entries.hasNext()) {
+            final WorldEntry entry = entries.next();
+            if (changed.containsKey(entry.getWorldFileName())) {
+                entries.remove();
+                try {
+                    base.folderById(entry.getFolderId())
+                            .getEntries()
+                            .remove(entry);
+                } catch (NoSuchElementException e) {
+                    //:: The entry was never placed in a directory.
+                }
+            }
+        }
+
+        WorldIndex.instance().resolveLegacyPaths(base);
+        final List<WorldEntry> added = new ArrayList<>();
+        for (final WorldSummary summary : changed.values()) {
+            if (summary != null) {
+                added.add(
+                        new WorldEntry(this, summary, this.mc.getSaveLoader())
+                );
+            }
+        }
+        this.entryList.addAll(added);
+        Collections.sort(this.entryList);
+        directoryList.populateDirectoryList(added);
+
+        final List<String> worldFileNames =
+                new ArrayList<>(this.entryList.size());
+        for (final WorldEntry entry : this.entryList) {
+            worldFileNames.add(entry.getWorldFileName());
+        }
+        WorldIndex.instance().retain(worldFileNames);
+
+        this.scannedSavesMtime = this.savesDir().lastModified();
+        this.display(directoryList.getFolder().getEntries());
+    }
+
+    /**
+     * Marks the world entries as out of date, so the saves directory is
+     * scanned again the next time the world menu is shown.
+     */
+    public final void invalidate() {
+        this.stale = true;
+    }
+
+    /**
+     * Starts handing changes made to the saves directory to this list.
+     * This is called whenever the world menu is shown.
+     */
+    public final void watchSaves() {
+        this.watcher = SavesWatcher.start(this.savesDir(), this);
+    }
+
+    /**
+     * Stops watching the saves directory. This is called when the world
+     * menu is left for the game or another menu; it rescans when it is
+     * shown again.
+     */
+    public final void stopWatching() {
+        if (this.watcher != null) {
+            this.watcher.close();
+            this.watcher = null;
+        }
+    }
+
+    /**
+     * @return Returns the directory the worlds are saved in.
+     */
+    private File savesDir() {
+        return new File(this.mc.gameDir, MOPMLiterals.SAVES_DIR);
+    }
+
     /**
      * @return Returns the index of the currently selected entry.
      */
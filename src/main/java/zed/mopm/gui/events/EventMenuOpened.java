@@ -1,11 +1,13 @@
 package zed.mopm.gui.events;
 
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.GuiMainMenu;
 import net.minecraft.client.gui.GuiMultiplayer;
 import net.minecraft.client.gui.GuiScreen;
 import net.minecraft.client.gui.GuiWorldSelection;
 import net.minecraftforge.client.event.GuiOpenEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import zed.mopm.data.CatalogWarmup;
 import zed.mopm.data.ServerEntry;
 import zed.mopm.data.WorldEntry;
 import zed.mopm.gui.menus.base.SelectMenuBase;
@@ -51,6 +53,15 @@ public final class EventMenuOpened {
             ServerEntry,
             ServerList
             > serverSelection;
+    /**
+     * The world list of the world selection menu.
+     */
+    private static WorldList worldList;
+
+    /**
+     * The screen the modded menus return to.
+     */
+    private static GuiScreen parent;
 
     /**
      * This should not be accessed.
@@ -64,32 +75,67 @@ public final class EventMenuOpened {
     @SubscribeEvent
     public static void onGuiOpen(final GuiOpenEvent event) {
         GuiScreen gui = event.getGui();
+        boolean built = false;
+
+        if (
+                (gui instanceof GuiWorldSelection
+                        || gui instanceof GuiMultiplayer)
+                        && worldSelection == null
+        ) {
+            buildMenus();
+            built = true;
+        }
 
         if (gui instanceof GuiWorldSelection) {
             References.LOG.info(SSP_OPEN);
+            if (!built) {
+                //:: Worlds may have been played since the menu was last
+                //:: shown, so it is rescanned when opened from outside.
+                worldList.invalidate();
+            }
+            worldList.watchSaves();
             event.setGui(worldSelection);
         } else if (gui instanceof GuiMultiplayer) {
             References.LOG.info(SMP_OPEN);
             event.setGui(serverSelection);
         }
+
+        if (worldList != null
+                && (gui == null
+                        || gui instanceof GuiMainMenu
+                        || gui instanceof GuiMultiplayer)) {
+            //:: The world menu was left for the game or another menu;
+            //:: it rescans when it is shown again.
+            worldList.stopWatching();
+        }
     }
 
     /**
-     * Instantiates the modded selection menus.
+     * Starts loading the menu catalogs in the background. The menus are
+     * built the first time one of them is opened.
      * @param parentIn The main menu.
      */
     public static void loadMenus(final GuiScreen parentIn) {
+        parent = parentIn;
+        CatalogWarmup.start();
+    }
+
+    /**
+     * Instantiates the modded selection menus, waiting for the catalog
+     * warm up if it is still running.
+     */
+    private static void buildMenus() {
+        final GuiScreen parentIn = parent;
         worldSelection = new SelectMenuBase<>(
                 new WorldSelectMenu(parentIn),
                 Minecraft.getMinecraft()
         );
-        worldSelection.setContainingList(
-                new WorldList(
-                        worldSelection,
-                        Minecraft.getMinecraft(),
-                        SLOT_HEIGHT
-                )
+        worldList = new WorldList(
+                worldSelection,
+                Minecraft.getMinecraft(),
+                SLOT_HEIGHT
         );
+        worldSelection.setContainingList(worldList);
 
         serverSelection = new SelectMenuBase<>(
                 new ServerSelectMenu(parentIn),
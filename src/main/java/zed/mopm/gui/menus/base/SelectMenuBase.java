@@ -11,6 +11,7 @@ import zed.mopm.api.gui.*;
 import zed.mopm.api.gui.lists.IListType;
 import zed.mopm.api.gui.lists.IModifiableList;
 import zed.mopm.data.WorldEntry;
+import zed.mopm.data.WorldIconCache;
 import zed.mopm.gui.elements.base.NavigationDisplay;
 import zed.mopm.gui.elements.buttons.ButtonFactory;
 import zed.mopm.gui.elements.lists.DirectoryList;
@@ -18,7 +19,8 @@ import zed.mopm.gui.elements.lists.ServerList;
 import zed.mopm.gui.elements.lists.WorldList;
 import zed.mopm.gui.menus.mutators.directory.CreateDirectoryMenu;
 import zed.mopm.gui.utils.GuiUtils;
-import zed.mopm.util.MOPMLiterals;
+import zed.mopm.gui.utils.QuadBatch;
+import zed.mopm.util.CoalescingWriter;
 import zed.mopm.util.References;
 
 import java.io.IOException;
@@ -168,7 +170,11 @@ public class SelectMenuBase<
                 this.height - BASE_64
         );
 
-        this.refreshDirectoryEntryList();
+        if (this.entrySelectionList.isStale()) {
+            this.refreshDirectoryEntryList();
+        } else {
+            this.displayDirectoryEntryList();
+        }
         super.initGui();
     }
 
@@ -197,6 +203,7 @@ public class SelectMenuBase<
                 mouseY,
                 partialTicks
         );
+        QuadBatch.instance().endFrame();
     }
 
     /**
@@ -369,11 +376,7 @@ public class SelectMenuBase<
     ) {
         super.mouseReleased(mouseX, mouseY, state);
 
-        if (this.directoryList.uniquePath().equals(MOPMLiterals.BASE_DIR)) {
-            this.navBar.isPreviousButtonEnabled(false);
-        } else {
-            this.navBar.isPreviousButtonEnabled(true);
-        }
+        this.navBar.isPreviousButtonEnabled(!this.directoryList.isAtBase());
 
         switch (this.listFocus) {
 
@@ -429,11 +432,18 @@ public class SelectMenuBase<
     }
 
     /**
-     * Ready's the menu when the selection menu is closed.
+     * Ready's the menu when the selection menu is closed and writes any
+     * save that is still waiting.
      */
     @Override
     public final void onGuiClosed() {
         Keyboard.enableRepeatEvents(false);
+        CoalescingWriter.flushAll();
+        WorldIconCache.logStats();
+        References.LOG.debug(
+                "Select menu draw calls in the last frame: {}",
+                QuadBatch.instance().getDrawCallsLastFrame()
+        );
     }
 
     //:: IFolderMenu
@@ -453,6 +463,15 @@ public class SelectMenuBase<
     @Override
     public final void refreshDirectoryEntryList() {
         this.entrySelectionList.refresh();
+        this.displayDirectoryEntryList();
+    }
+
+    /**
+     * Shows the entries of the current directory. Nothing is read from
+     * disk, so this is used when moving between directories.
+     */
+    @Override
+    public final void displayDirectoryEntryList() {
         this.entrySelectionList.display(
                 this.directoryList
                         .getFolder()
@@ -243,11 +243,10 @@ public class ServerSelectMenu
     ) {
         final int wholePosition = this.serverList.getWholeIndex(position);
         final int i = canMove ? 0 : wholePosition - 1;
-        this.serverList.getListDetails().swapServers(wholePosition, i);
+        final int moved = this.serverList.moveServer(wholePosition, i);
         if (this.serverList.getSelectedIndex() == position) {
-            this.serverList.setSelectedIndex(i);
+            this.serverList.setSelectedIndex(moved);
         }
-        this.serverList.updateServerList();
     }
 
     /**
@@ -266,11 +265,10 @@ public class ServerSelectMenu
         final int i = (canMove)
                 ? this.serverList.getPartialSize() - 1
                 : wholePosition + 1;
-        this.serverList.getListDetails().swapServers(wholePosition, i);
+        final int moved = this.serverList.moveServer(wholePosition, i);
         if (serverList.getSelectedIndex() == position) {
-            this.serverList.setSelectedIndex(i);
+            this.serverList.setSelectedIndex(moved);
         }
-        this.serverList.updateServerList();
     }
 
     /**
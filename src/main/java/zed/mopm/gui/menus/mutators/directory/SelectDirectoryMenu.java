@@ -10,7 +10,6 @@ import zed.mopm.gui.elements.base.GradientOverlay;
 import zed.mopm.gui.elements.buttons.ButtonFactory;
 import zed.mopm.gui.elements.buttons.ToolTipButton;
 import zed.mopm.gui.elements.lists.DirectoryList;
-import zed.mopm.util.MOPMLiterals;
 
 import java.io.IOException;
 
@@ -166,9 +165,7 @@ public class SelectDirectoryMenu extends GuiScreen {
 
         this.pathDisplay.setMaxStringLength(Integer.MAX_VALUE);
         this.pathDisplay.setText(this.directoryListIn.currentPath());
-        this.backBtn.enabled =
-                !this.directoryListIn.uniquePath()
-                        .equals(MOPMLiterals.BASE_DIR);
+        this.backBtn.enabled = !this.directoryListIn.isAtBase();
 
         this.setDimensions();
     }
@@ -190,8 +187,8 @@ public class SelectDirectoryMenu extends GuiScreen {
 
             case CREATE_ID:
                 applySelectionTo.setPath(this.directoryListIn.currentPath());
-                applySelectionTo.setUniquePath(
-                        this.directoryListIn.uniquePath()
+                applySelectionTo.setFolderId(
+                        this.directoryListIn.currentFolderId()
                 );
                 this.mc.displayGuiScreen(this.parentIn);
                 break;
@@ -271,9 +268,7 @@ public class SelectDirectoryMenu extends GuiScreen {
         super.mouseReleased(mouseX, mouseY, state);
         this.directoryListIn.mouseReleased(mouseX, mouseY, state);
         this.pathDisplay.setText(this.directoryListIn.currentPath());
-        this.backBtn.enabled =
-                !this.directoryListIn.uniquePath()
-                        .equals(MOPMLiterals.BASE_DIR);
+        this.backBtn.enabled = !this.directoryListIn.isAtBase();
     }
 
     /**
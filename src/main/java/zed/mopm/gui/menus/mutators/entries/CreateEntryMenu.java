@@ -72,9 +72,9 @@ public class CreateEntryMenu<
      */
     private GuiButtonExt selectBtn;
     /**
-     * The directory path.
+     * The folder id of the directory the entry will be saved in.
      */
-    private String savePath;
+    private int saveFolderId;
     /**
      * The save file for the directory path.
      */
@@ -99,7 +99,7 @@ public class CreateEntryMenu<
         this.mopmSaveFile = null;
 
         this.setPath(directoryList.currentPath());
-        this.setUniquePath(directoryList.uniquePath());
+        this.setFolderId(directoryList.currentFolderId());
     }
 
     //-----Overridden Methods:--------------------------//
@@ -246,20 +246,21 @@ public class CreateEntryMenu<
     }
 
     /**
-     * Sets the unique save path.
-     * @param path The path to save the created entry to.
+     * Sets the directory the created entry will be saved in.
+     * @param folderId The folder id of the directory.
      */
     @Override
-    public final void setUniquePath(final String path) {
-        this.savePath = path;
+    public final void setFolderId(final int folderId) {
+        this.saveFolderId = folderId;
     }
 
     /**
-     * @return Returns the path to the directory the entry will be saved in.
+     * @return Returns the folder id of the directory the entry will be
+     * saved in.
      */
     @Override
-    public final String getPathToDir() {
-        return this.pathDisplay.getText().substring("Dir: ".length());
+    public final int getFolderId() {
+        return this.saveFolderId;
     }
 
     /**
@@ -281,13 +282,6 @@ public class CreateEntryMenu<
         this.mopmSaveFile = file;
     }
 
-    /**
-     * @return Returns the unique save path to the created entry.
-     */
-    public final String getSavePath() {
-        return this.savePath;
-    }
-
     /**
      * Toggles the display of the selected path.
      */
@@ -226,7 +226,7 @@ public class CreateServerMenu
             case CreatorMenu.CREATION_ID:
                 server.serverName = this.nameField.getText();
                 server.serverIP = this.ipField.getText();
-                this.saveData.setSavePath(entryMenu.getSavePath());
+                this.saveData.setFolderId(entryMenu.getFolderId());
                 this.parentIn.confirmClicked(true, 0);
                 break;
 
@@ -12,7 +12,7 @@ import net.minecraftforge.fml.client.config.GuiButtonExt;
 import org.apache.commons.lang3.StringUtils;
 import zed.mopm.api.gui.mutators.CreatorMenu;
 import zed.mopm.api.gui.mutators.ICreatorMenu;
-import zed.mopm.util.MOPMLiterals;
+import zed.mopm.data.WorldIndex;
 import zed.mopm.util.References;
 
 import java.io.*;
@@ -159,7 +159,7 @@ public class CreateWorldMenu
         switch (btn.id) {
             case CreatorMenu.CREATION_ID:
                 entryMenu.setMopmSaveFile(
-                        writeSaveData(entryMenu.getSavePath())
+                        writeSaveData(entryMenu.getFolderId())
                 );
                 break;
 
@@ -254,39 +254,21 @@ public class CreateWorldMenu
     }
 
     /**
-     * Writes the directory path location of the world to the world save data.
+     * Writes the directory location of the world to the world index.
      *
-     * @param savePath The virtual directory path where the world is
-     *                 contained in.
-     * @return A file, either the save file or the base game directory.
+     * @param folderId The folder id of the virtual directory the world
+     *                 is contained in.
+     * @return The world index file.
      */
-    private File writeSaveData(final String savePath) {
-        try {
-            final File mopmSaveFile = this.mc.getSaveLoader()
-                    .getFile(
-                            this.getSaveDirectory(),
-                            MOPMLiterals.MOPM_SAVE_DAT
-                    );
-            mopmSaveFile.getParentFile().mkdirs();
-
-            References.LOG.info(
-                    "Writing save path: "
-                            + savePath
-                            + " : save to : "
-                            + mopmSaveFile.getAbsolutePath()
-            );
-            try (
-                    DataOutputStream write =
-                            new DataOutputStream(
-                                    new FileOutputStream(mopmSaveFile)
-                            )
-            ) {
-                write.write(savePath.getBytes());
-            }
-            return mopmSaveFile;
-        } catch (IOException e) {
-            References.LOG.info("Error occurred on world creation: ", e);
-        }
-        return new File(Minecraft.getMinecraft().gameDir, "");
+    private File writeSaveData(final int folderId) {
+        final WorldIndex index = WorldIndex.instance();
+        References.LOG.info(
+                "Writing save folder: "
+                        + folderId
+                        + " : save to : "
+                        + index.getFile().getAbsolutePath()
+        );
+        index.setFolder(this.getSaveDirectory(), folderId);
+        return index.getFile();
     }
 }
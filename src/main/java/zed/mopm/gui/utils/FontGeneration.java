@@ -0,0 +1,60 @@
+package zed.mopm.gui.utils;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.resources.IReloadableResourceManager;
+import net.minecraft.client.resources.IResourceManager;
+
+/**
+ * Tells when text measured with the client's font renderer has to be
+ * measured again. The generation changes whenever resources are reloaded,
+ * which may replace the font textures and glyph widths, and whenever the
+ * unicode font is switched on or off.
+ */
+public final class FontGeneration {
+
+    //-----Fields:--------------------------------------//
+
+    /**
+     * The number of resource reloads since the listener was registered.
+     */
+    private static int reloads;
+
+    //-----Constructors:--------------------------------//
+
+    /**
+     * This should not be accessed.
+     */
+    private FontGeneration() { }
+
+    //-----This:----------------------------------------//
+
+    /**
+     * Starts counting resource reloads. This must be called once the
+     * client's resource manager exists.
+     */
+    public static void register() {
+        ((IReloadableResourceManager) Minecraft.getMinecraft()
+                .getResourceManager())
+                .registerReloadListener(FontGeneration::onReload);
+    }
+
+    /**
+     * @return Returns the current font generation. Text measured under a
+     * different generation has to be measured again.
+     */
+    public static int current() {
+        int generation = reloads << 1;
+        if (Minecraft.getMinecraft().fontRenderer.getUnicodeFlag()) {
+            generation |= 1;
+        }
+        return generation;
+    }
+
+    /**
+     * Counts a resource reload.
+     * @param resourceManager The reloaded resource manager.
+     */
+    private static void onReload(final IResourceManager resourceManager) {
+        reloads++;
+    }
+}
@@ -7,13 +7,8 @@ import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.Tessellator;
 import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.util.ResourceLocation;
-import org.apache.commons.lang3.tuple.Pair;
 
-import javax.vecmath.Vector2d;
-import javax.vecmath.Vector4d;
-import javax.vecmath.Vector4f;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 public final class GuiUtils {
@@ -21,30 +16,6 @@ public final class GuiUtils {
     private GuiUtils() { }
 
     public static void drawGradientRect(final int left, final int top, final int right, final int bottom, final int startColor, final int endColor, final float zLevel, final boolean isVertical) {
-        final float f = (float) (startColor >> 24 & 255) / 255.0F;
-        final float f1 = (float) (startColor >> 16 & 255) / 255.0F;
-        final float f2 = (float) (startColor >> 8 & 255) / 255.0F;
-        final float f3 = (float) (startColor & 255) / 255.0F;
-        final Vector4f startColor4d = new Vector4f(f1, f2, f3, f);
-
-        final float f4 = (float) (endColor >> 24 & 255) / 255.0F;
-        final float f5 = (float) (endColor >> 16 & 255) / 255.0F;
-        final float f6 = (float) (endColor >> 8 & 255) / 255.0F;
-        final float f7 = (float) (endColor & 255) / 255.0F;
-        final Vector4f endColor4d = new Vector4f(f5, f6, f7, f4);
-
-        List<Pair<Vector2d, Vector4f>> datums = (isVertical) ? Arrays.asList(//:: Vertical
-                Pair.of(new Vector2d(top, right), startColor4d),
-                Pair.of(new Vector2d(top, left), startColor4d),
-                Pair.of(new Vector2d(bottom, left), endColor4d),
-                Pair.of(new Vector2d(bottom, right), endColor4d))
-                : Arrays.asList(//:: Horizontal
-                Pair.of(new Vector2d(right, top), startColor4d),
-                Pair.of(new Vector2d(left, top), startColor4d),
-                Pair.of(new Vector2d(left, bottom), endColor4d),
-                Pair.of(new Vector2d(right, bottom), endColor4d)
-                );
-
         GlStateManager.disableTexture2D();
         GlStateManager.enableBlend();
         GlStateManager.disableAlpha();
@@ -54,13 +25,9 @@ public final class GuiUtils {
         BufferBuilder bufferbuilder = tessellator.getBuffer();
 
         bufferbuilder.begin(7, DefaultVertexFormats.POSITION_COLOR);
-        datums.stream().forEach( datum -> {
-            final Vector2d coords = datum.getKey();
-            final Vector4f color = datum.getValue();
-
-            bufferbuilder.pos(coords.getX(), coords.getY(), zLevel).color(color.getX(), color.getY(), color.getZ(), color.getW()).endVertex();
-        });
+        addGradientRect(bufferbuilder, left, top, right, bottom, startColor, endColor, zLevel, isVertical);
         tessellator.draw();
+        QuadBatch.instance().countDraw();
 
         GlStateManager.shadeModel(7424);
         GlStateManager.disableBlend();
@@ -68,17 +35,39 @@ public final class GuiUtils {
         GlStateManager.enableTexture2D();
     }
 
+    /**
+     * Adds the vertices of a gradient rect to a buffer that was begun with
+     * {@link DefaultVertexFormats#POSITION_COLOR}. This does not allocate.
+     */
+    static void addGradientRect(final BufferBuilder bufferbuilder, final int left, final int top, final int right, final int bottom, final int startColor, final int endColor, final float zLevel, final boolean isVertical) {
+        final float f = (float) (startColor >> 24 & 255) / 255.0F;
+        final float f1 = (float) (startColor >> 16 & 255) / 255.0F;
+        final float f2 = (float) (startColor >> 8 & 255) / 255.0F;
+        final float f3 = (float) (startColor & 255) / 255.0F;
+
+        final float f4 = (float) (endColor >> 24 & 255) / 255.0F;
+        final float f5 = (float) (endColor >> 16 & 255) / 255.0F;
+        final float f6 = (float) (endColor >> 8 & 255) / 255.0F;
+        final float f7 = (float) (endColor & 255) / 255.0F;
+
+        if (isVertical) {
+            bufferbuilder.pos(top, right, zLevel).color(f1, f2, f3, f).endVertex();
+            bufferbuilder.pos(top, left, zLevel).color(f1, f2, f3, f).endVertex();
+            bufferbuilder.pos(bottom, left, zLevel).color(f5, f6, f7, f4).endVertex();
+            bufferbuilder.pos(bottom, right, zLevel).color(f5, f6, f7, f4).endVertex();
+        } else {
+            bufferbuilder.pos(right, top, zLevel).color(f1, f2, f3, f).endVertex();
+            bufferbuilder.pos(left, top, zLevel).color(f1, f2, f3, f).endVertex();
+            bufferbuilder.pos(left, bottom, zLevel).color(f5, f6, f7, f4).endVertex();
+            bufferbuilder.pos(right, bottom, zLevel).color(f5, f6, f7, f4).endVertex();
+        }
+    }
+
     public static void drawGradientRect(final int left, final int top, final int right, final int bottom, final int startColor, final int endColor, final int zLevel) {
         drawGradientRect(left, top, right, bottom, startColor, endColor, zLevel, false);
     }
 
     public static void drawTexturedRect(final double left, final double top, final double right, final double bottom, final double z, final int r, final int g, final int b, final int a, final int tint, final ResourceLocation rl, final Minecraft mc) {
-        List<Vector4d> datums = Arrays.asList(
-                new Vector4d(left,bottom,0.0D,bottom/128.0F),
-                new Vector4d(right,bottom,right/32.0F,bottom/128.0F),
-                new Vector4d(right,top,right/32.0F,0.0D),
-                new Vector4d(left,top,0.0D,0.0D));
-      
         GlStateManager.disableLighting();
         GlStateManager.disableFog();
         Tessellator tessellator = Tessellator.getInstance();
@@ -87,13 +76,20 @@ public final class GuiUtils {
         GlStateManager.color(1.0F, 1.0F, 1.0F, 1.0F);
 
         bufferbuilder.begin(7, DefaultVertexFormats.POSITION_TEX_COLOR);
-
-        datums.stream().forEach( datum -> bufferbuilder.pos(datum.getX(), datum.getY(), z)
-                .tex(datum.getZ(), tint+datum.getW())
-                .color(r, g, b, a)
-                .endVertex() );
-
+        addTexturedRect(bufferbuilder, left, top, right, bottom, z, r, g, b, a, tint);
         tessellator.draw();
+        QuadBatch.instance().countDraw();
+    }
+
+    /**
+     * Adds the vertices of a textured rect to a buffer that was begun with
+     * {@link DefaultVertexFormats#POSITION_TEX_COLOR}. This does not allocate.
+     */
+    static void addTexturedRect(final BufferBuilder bufferbuilder, final double left, final double top, final double right, final double bottom, final double z, final int r, final int g, final int b, final int a, final int tint) {
+        bufferbuilder.pos(left, bottom, z).tex(0.0D, tint + bottom / 128.0F).color(r, g, b, a).endVertex();
+        bufferbuilder.pos(right, bottom, z).tex(right / 32.0F, tint + bottom / 128.0F).color(r, g, b, a).endVertex();
+        bufferbuilder.pos(right, top, z).tex(right / 32.0F, tint).color(r, g, b, a).endVertex();
+        bufferbuilder.pos(left, top, z).tex(0.0D, tint).color(r, g, b, a).endVertex();
     }
 
     public static void drawToolTip(final FontRenderer renderer, final List<String> textLines, int x, final int y, int width, final int height) {
@@ -105,13 +101,16 @@ public final class GuiUtils {
         int boarderColorStart = 1347420415;
         int boarderColorEnd = 1344798847;
 
-        drawGradientRect(x, y, x + width, y + height, baseColor, baseColor, zLevel); //Horizontal Base
-        drawGradientRect(x + 1, y - 1, x + width - 1, y + height + 1, -267386864, -267386864, zLevel); // Vertical base
+        final QuadBatch batch = QuadBatch.instance();
+        batch.setZLevel(zLevel);
+        batch.addColored(x, y, x + width, y + height, baseColor, baseColor); //Horizontal Base
+        batch.addColored(x + 1, y - 1, x + width - 1, y + height + 1, -267386864, -267386864); // Vertical base
 
-        drawGradientRect(x + 1, y, x + width - 1, y + 1, boarderColorStart, boarderColorEnd, zLevel); // purple boarder top
-        drawGradientRect(x + 1, y + height - 1, x + width - 1, y + height, boarderColorEnd, boarderColorStart, zLevel); // purple boarder bottom
-        drawGradientRect(x + width - 2, y + 1, x + width - 1, y + height - 1, boarderColorStart, boarderColorEnd, zLevel); // purple boarder right
-        drawGradientRect(x + 1, y + 1, x + 2, y + height - 1, boarderColorEnd, boarderColorStart, zLevel); // purple boarder left
+        batch.addColored(x + 1, y, x + width - 1, y + 1, boarderColorStart, boarderColorEnd); // purple boarder top
+        batch.addColored(x + 1, y + height - 1, x + width - 1, y + height, boarderColorEnd, boarderColorStart); // purple boarder bottom
+        batch.addColored(x + width - 2, y + 1, x + width - 1, y + height - 1, boarderColorStart, boarderColorEnd); // purple boarder right
+        batch.addColored(x + 1, y + 1, x + 2, y + height - 1, boarderColorEnd, boarderColorStart); // purple boarder left
+        batch.flush();
 
         for (int i = 0; i < textLines.size(); i++) {
             renderer.drawStringWithShadow(textLines.get(i), (float) (x + 5.0), (float) (y + (height / 4.0) + (i * 5)), -1);
@@ -0,0 +1,264 @@
+package zed.mopm.gui.utils;
+
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL11.GL_FLAT;
+import static org.lwjgl.opengl.GL11.GL_QUADS;
+import static org.lwjgl.opengl.GL11.GL_SMOOTH;
+
+/**
+ * Collects the colored quads of mopm widgets and draws them with one
+ * tessellator draw. Widgets add their quads and call {@link #flush()}
+ * before drawing anything that has to appear on top of them, such as
+ * text.<br><br>
+ *
+ * The batch reuses its array, so adding quads does not allocate once the
+ * array has grown to a frame's worth of quads.<br><br>
+ *
+ * The batch also counts the draw calls mopm's own widgets issue, see
+ * {@link #getDrawCallsLastFrame()}. That covers its flushes, the rects
+ * drawn by {@link GuiUtils} and the world icon pages; vanilla draws such
+ * as text, list backgrounds and buttons are not counted.
+ */
+public final class QuadBatch {
+
+    //-----Consts:--------------------------------------//
+
+    /**
+     * The number of quads the batch has room for before it grows.
+     */
+    private static final int INITIAL_QUADS = 16;
+    /**
+     * The number of ints stored per colored quad.
+     */
+    private static final int COLORED_STRIDE = 6;
+    /**
+     * The largest value of a color channel.
+     */
+    private static final float CHANNEL_MAX = 255.0F;
+    /**
+     * The number of bits to shift a color to reach its alpha channel.
+     */
+    private static final int ALPHA_SHIFT = 24;
+    /**
+     * The number of bits to shift a color to reach its red channel.
+     */
+    private static final int RED_SHIFT = 16;
+    /**
+     * The number of bits to shift a color to reach its green channel.
+     */
+    private static final int GREEN_SHIFT = 8;
+    /**
+     * Masks one color channel.
+     */
+    private static final int CHANNEL_MASK = 0xFF;
+
+    /**
+     * The batch shared by every widget on the client thread.
+     */
+    private static final QuadBatch INSTANCE = new QuadBatch();
+
+    //-----Fields:--------------------------------------//
+
+    /**
+     * The left, top, right, bottom, top color and bottom color of every
+     * colored quad.
+     */
+    private int[] colored = new int[INITIAL_QUADS * COLORED_STRIDE];
+    /**
+     * The number of colored quads in the batch.
+     */
+    private int coloredCount;
+    /**
+     * The z level every quad is drawn at.
+     */
+    private float zLevel;
+    /**
+     * The number of draw calls issued since the frame started.
+     */
+    private int drawCalls;
+    /**
+     * The number of draw calls issued during the last finished frame.
+     */
+    private int drawCallsLastFrame;
+
+    //-----Constructors:--------------------------------//
+
+    /**
+     * This should not be accessed.
+     */
+    private QuadBatch() { }
+
+    //-----This:----------------------------------------//
+
+    /**
+     * @return Returns the batch shared by every widget. It may only be used
+     * on the client thread.
+     */
+    public static QuadBatch instance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Sets the z level the quads of the next flush are drawn at.
+     * @param zLevelIn The z level.
+     */
+    public void setZLevel(final float zLevelIn) {
+        this.zLevel = zLevelIn;
+    }
+
+    /**
+     * Adds a quad filled with a vertical gradient, the same as
+     * {@link net.minecraft.client.gui.Gui#drawGradientRect}.
+     * @param left The left edge of the quad.
+     * @param top The top edge of the quad.
+     * @param right The right edge of the quad.
+     * @param bottom The bottom edge of the quad.
+     * @param topColor The ARGB color of the top edge.
+     * @param bottomColor The ARGB color of the bottom edge.
+     */
+    public void addColored(
+            final int left,
+            final int top,
+            final int right,
+            final int bottom,
+            final int topColor,
+            final int bottomColor
+    ) {
+        final int at = this.coloredCount * COLORED_STRIDE;
+        if (at == this.colored.length) {
+            this.colored = Arrays.copyOf(this.colored, at * 2);
+        }
+        this.colored[at] = left;
+        this.colored[at + 1] = top;
+        this.colored[at + 2] = right;
+        this.colored[at + 3] = bottom;
+        this.colored[at + 4] = topColor;
+        this.colored[at + 5] = bottomColor;
+        this.coloredCount++;
+    }
+
+    /**
+     * Adds a quad filled with one color.
+     * @param left The left edge of the quad.
+     * @param top The top edge of the quad.
+     * @param right The right edge of the quad.
+     * @param bottom The bottom edge of the quad.
+     * @param color The ARGB color of the quad.
+     */
+    public void addColored(
+            final int left,
+            final int top,
+            final int right,
+            final int bottom,
+            final int color
+    ) {
+        this.addColored(left, top, right, bottom, color, color);
+    }
+
+    /**
+     * Draws every quad in the batch with one draw call and empties it.
+     */
+    public void flush() {
+        final Tessellator tessellator = Tessellator.getInstance();
+        final BufferBuilder buffer = tessellator.getBuffer();
+        GlStateManager.enableBlend();
+        GlStateManager.tryBlendFuncSeparate(
+                GlStateManager.SourceFactor.SRC_ALPHA,
+                GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA,
+                GlStateManager.SourceFactor.ONE,
+                GlStateManager.DestFactor.ZERO
+        );
+
+        if (this.coloredCount > 0) {
+            GlStateManager.disableTexture2D();
+            GlStateManager.disableAlpha();
+            GlStateManager.shadeModel(GL_SMOOTH);
+            buffer.begin(GL_QUADS, DefaultVertexFormats.POSITION_COLOR);
+            for (int i = 0; i < this.coloredCount; i++) {
+                this.emitColored(buffer, i * COLORED_STRIDE);
+            }
+            this.draw(tessellator);
+            GlStateManager.shadeModel(GL_FLAT);
+            GlStateManager.enableAlpha();
+            GlStateManager.enableTexture2D();
+            this.coloredCount = 0;
+        }
+
+        GlStateManager.disableBlend();
+    }
+
+    /**
+     * Counts a draw call issued by a mopm widget outside of the batch.
+     */
+    public void countDraw() {
+        this.drawCalls++;
+    }
+
+    /**
+     * Ends the frame. The draw calls counted since the last call become
+     * the count of the last frame.
+     */
+    public void endFrame() {
+        this.drawCallsLastFrame = this.drawCalls;
+        this.drawCalls = 0;
+    }
+
+    /**
+     * @return Returns the number of draw calls mopm's widgets issued
+     * during the last finished frame.
+     */
+    public int getDrawCallsLastFrame() {
+        return this.drawCallsLastFrame;
+    }
+
+    /**
+     * Adds the vertices of a colored quad to a buffer.
+     * @param buffer The buffer being built.
+     * @param at The index of the quad's first int.
+     */
+    private void emitColored(final BufferBuilder buffer, final int at) {
+        final int left = this.colored[at];
+        final int top = this.colored[at + 1];
+        final int right = this.colored[at + 2];
+        final int bottom = this.colored[at + 3];
+        final int topColor = this.colored[at + 4];
+        final int bottomColor = this.colored[at + 5];
+        color(buffer.pos(right, top, this.zLevel), topColor).endVertex();
+        color(buffer.pos(left, top, this.zLevel), topColor).endVertex();
+        color(buffer.pos(left, bottom, this.zLevel), bottomColor).endVertex();
+        color(buffer.pos(right, bottom, this.zLevel), bottomColor).endVertex();
+    }
+
+    /**
+     * Draws the built buffer and counts the draw call.
+     * @param tessellator The tessellator holding the buffer.
+     */
+    private void draw(final Tessellator tessellator) {
+        tessellator.draw();
+        this.drawCalls++;
+    }
+
+    /**
+     * Sets the color of a vertex.
+     * @param vertex The vertex being built.
+     * @param argb The ARGB color.
+     * @return Returns the vertex being built.
+     */
+    private static BufferBuilder color(
+            final BufferBuilder vertex,
+            final int argb
+    ) {
+        return vertex.color(
+                (argb >> RED_SHIFT & CHANNEL_MASK) / CHANNEL_MAX,
+                (argb >> GREEN_SHIFT & CHANNEL_MASK) / CHANNEL_MAX,
+                (argb & CHANNEL_MASK) / CHANNEL_MAX,
+                (argb >> ALPHA_SHIFT & CHANNEL_MASK) / CHANNEL_MAX
+        );
+    }
+}
@@ -0,0 +1,94 @@
+package zed.mopm.util;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single daemon thread that mopm hands its disk writes to so the client
+ * thread never waits on I/O. Tasks run in the order they were submitted.
+ * Queued tasks are drained when the game shuts down.
+ */
+public final class BackgroundIO {
+
+    //-----Consts:--------------------------------------//
+
+    /**
+     * The name of the I/O thread.
+     */
+    private static final String THREAD_NAME = "MOPM IO";
+    /**
+     * How long shutdown waits for queued writes, in seconds.
+     */
+    private static final long SHUTDOWN_WAIT = 5L;
+
+    /**
+     * The executor that runs every queued task.
+     */
+    private static final ScheduledExecutorService EXECUTOR =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    static {
+        Runtime.getRuntime().addShutdownHook(
+                new Thread(BackgroundIO::drain, THREAD_NAME + " shutdown")
+        );
+    }
+
+    //-----Constructors:--------------------------------//
+
+    /**
+     * This should not be accessed.
+     */
+    private BackgroundIO() { }
+
+    //-----This:----------------------------------------//
+
+    /**
+     * Queues a task on the I/O thread.
+     * @param task The task to run.
+     */
+    public static void execute(final Runnable task) {
+        EXECUTOR.execute(guard(task));
+    }
+
+    /**
+     * Queues a task on the I/O thread after a delay.
+     * @param task The task to run.
+     * @param delayMillis The delay in milliseconds.
+     */
+    public static void schedule(final Runnable task, final long delayMillis) {
+        EXECUTOR.schedule(guard(task), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Wraps a task so a failing write is logged instead of killing the
+     * I/O thread.
+     * @param task The task to wrap.
+     * @return Returns the wrapped task.
+     */
+    private static Runnable guard(final Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                References.LOG.error("Background write failed: ", e);
+            }
+        };
+    }
+
+    /**
+     * Runs every queued task and stops the I/O thread.
+     */
+    private static void drain() {
+        EXECUTOR.shutdown();
+        try {
+            EXECUTOR.awaitTermination(SHUTDOWN_WAIT, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package zed.mopm.util;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes a file on the I/O thread a short while after it first changed.
+ * Every change hands over a snapshot of the data to write. The first
+ * snapshot schedules a write {@link MOPMConfig#writeDelay} later, and
+ * snapshots submitted before that write starts replace the waiting one,
+ * so a burst of changes costs a single write of the newest snapshot. The
+ * write is not pushed back by later changes, so a steady stream of
+ * changes is still written at least once per delay.<br><br>
+ *
+ * Pending writes are flushed when a mopm menu closes and when the game
+ * shuts down.
+ * @param <T> The type of snapshot that is written.
+ */
+public final class CoalescingWriter<T> {
+
+    //-----Consts:--------------------------------------//
+
+    /**
+     * Every writer that has been created, so they can all be flushed.
+     */
+    private static final List<CoalescingWriter<?>> WRITERS =
+            new CopyOnWriteArrayList<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(
+                new Thread(
+                        CoalescingWriter::flushAllNow,
+                        "MOPM writer shutdown"
+                )
+        );
+    }
+
+    //-----Fields:--------------------------------------//
+
+    /**
+     * Writes a snapshot to disk.
+     */
+    private final Sink<T> sink;
+    /**
+     * The newest snapshot that has not been written yet.
+     */
+    private final AtomicReference<T> pending = new AtomicReference<>();
+    /**
+     * True while a snapshot is being written.
+     */
+    private volatile boolean writing;
+
+    //-----Constructors:--------------------------------//
+
+    /**
+     * Creates a writer.
+     * @param sinkIn Writes a snapshot to disk.
+     */
+    public CoalescingWriter(final Sink<T> sinkIn) {
+        this.sink = sinkIn;
+        WRITERS.add(this);
+    }
+
+    //-----This:----------------------------------------//
+
+    /**
+     * Queues a snapshot to be written once the write delay has passed
+     * since the first snapshot that is still waiting. Replaces that
+     * snapshot without scheduling another write.
+     * @param snapshot The data to write.
+     */
+    public void submit(final T snapshot) {
+        if (this.pending.getAndSet(snapshot) == null) {
+            BackgroundIO.schedule(this::writePending, MOPMConfig.writeDelay);
+        }
+    }
+
+    /**
+     * Writes the waiting snapshot on the I/O thread without waiting for
+     * the write delay to pass.
+     */
+    public void flush() {
+        if (this.pending.get() != null) {
+            BackgroundIO.execute(this::writePending);
+        }
+    }
+
+    /**
+     * @return Returns true if a snapshot is waiting or being written, in
+     * which case the file on disk is older than the submitted data.
+     */
+    public boolean isPending() {
+        return this.writing || this.pending.get() != null;
+    }
+
+    /**
+     * Flushes every writer on the I/O thread.
+     */
+    public static void flushAll() {
+        for (final CoalescingWriter<?> writer : WRITERS) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Writes the waiting snapshot of every writer on the calling thread.
+     * This is used when the game shuts down and the I/O thread may
+     * already be stopping. A writer that fails is logged and does not
+     * keep the others from writing.
+     */
+    private static void flushAllNow() {
+        for (final CoalescingWriter<?> writer : WRITERS) {
+            writer.writePending();
+        }
+    }
+
+    /**
+     * Takes the waiting snapshot and writes it. Writes are serialized so an
+     * older snapshot can never overwrite a newer one.
+     */
+    private synchronized void writePending() {
+        this.writing = true;
+        try {
+            final T snapshot = this.pending.getAndSet(null);
+            if (snapshot != null) {
+                this.sink.write(snapshot);
+            }
+        } catch (IOException | RuntimeException e) {
+            References.LOG.error("Unable to write a snapshot: ", e);
+        } finally {
+            this.writing = false;
+        }
+    }
+
+    //-----Sink:----------------------------------------//
+
+    /**
+     * Writes a snapshot to disk.
+     * @param <T> The type of snapshot that is written.
+     */
+    @FunctionalInterface
+    public interface Sink<T> {
+
+        /**
+         * Writes a snapshot to disk. The snapshot has to be written
+         * before this returns; handing it to another thread would lose it
+         * when the game shuts down.
+         * @param snapshot The data to write.
+         * @throws IOException Thrown if the data could not be written.
+         */
+        void write(T snapshot) throws IOException;
+    }
+}
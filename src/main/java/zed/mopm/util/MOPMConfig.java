@@ -0,0 +1,101 @@
+package zed.mopm.util;
+
+import net.minecraftforge.common.config.Config;
+import net.minecraftforge.common.config.ConfigManager;
+import net.minecraftforge.fml.client.event.ConfigChangedEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+/**
+ * The user configurable settings of mopm, stored in config/mopm.cfg.
+ */
+@Config(modid = References.MODID)
+@Mod.EventBusSubscriber(modid = References.MODID)
+public final class MOPMConfig {
+
+    //-----Consts:--------------------------------------//
+
+    /**
+     * The longest allowed write delay, in milliseconds.
+     */
+    private static final int MAX_WRITE_DELAY = 60000;
+    /**
+     * The default write delay, in milliseconds.
+     */
+    private static final int DEFAULT_WRITE_DELAY = 1000;
+    /**
+     * The largest allowed number of scanning threads.
+     */
+    private static final int MAX_SCAN_THREADS = 16;
+    /**
+     * The default number of scanning threads.
+     */
+    private static final int DEFAULT_SCAN_THREADS = 4;
+    /**
+     * The largest allowed world icon cache size, in KiB.
+     */
+    private static final int MAX_ICON_CACHE_SIZE = 262144;
+    /**
+     * The default world icon cache size, in KiB.
+     */
+    private static final int DEFAULT_ICON_CACHE_SIZE = 4096;
+
+    //-----Settings:------------------------------------//
+
+    /**
+     * How long after its first unwritten change a file is written, in
+     * milliseconds.
+     */
+    @Config.Comment({
+            "How long after the first unwritten change mopm writes a "
+                    + "changed file such as servers.dat, in milliseconds.",
+            "Further changes made within this window are written together."
+    })
+    @Config.RangeInt(min = 0, max = MAX_WRITE_DELAY)
+    public static int writeDelay = DEFAULT_WRITE_DELAY;
+
+    /**
+     * The number of threads that read world saves in parallel.
+     */
+    @Config.Comment({
+            "The number of threads that read world saves in parallel when "
+                    + "the world list is scanned.",
+            "Takes effect after a restart."
+    })
+    @Config.RangeInt(min = 1, max = MAX_SCAN_THREADS)
+    @Config.RequiresMcRestart
+    public static int scanThreads = DEFAULT_SCAN_THREADS;
+
+    /**
+     * The texture memory world icons may take up, in KiB.
+     */
+    @Config.Comment({
+            "The texture memory world icons may take up, in KiB.",
+            "Icons are stored in pages of 1 MiB; past this size the page "
+                    + "of the least recently drawn icon is unloaded."
+    })
+    @Config.RangeInt(min = 0, max = MAX_ICON_CACHE_SIZE)
+    public static int iconCacheSize = DEFAULT_ICON_CACHE_SIZE;
+
+    //-----Constructors:--------------------------------//
+
+    /**
+     * This should not be accessed.
+     */
+    private MOPMConfig() { }
+
+    //-----This:----------------------------------------//
+
+    /**
+     * Applies the settings changed in the in game config menu.
+     * @param event The config change event.
+     */
+    @SubscribeEvent
+    public static void onConfigChanged(
+            final ConfigChangedEvent.OnConfigChangedEvent event
+    ) {
+        if (References.MODID.equals(event.getModID())) {
+            ConfigManager.sync(References.MODID, Config.Type.INSTANCE);
+        }
+    }
+}
@@ -7,12 +7,27 @@ public class MOPMLiterals {
 
     public static final String SERVERS_TAG = "servers";
     public static final String SERVERS_DAT = "servers.dat";
+    public static final String SERVER_ICON_TAG = "icon";
+    public static final String SERVER_NAME_TAG = "name";
+    public static final String SERVER_IP_TAG = "ip";
+
+    public static final String SAVES_DIR = "saves";
+    public static final String LEVEL_DAT = "level.dat";
+    public static final String LEVEL_DAT_OLD = "level.dat_old";
+    public static final String ICON_PNG = "icon.png";
 
     public static final String BASE_DIR_NAME = "base";
     public static final String BASE_DIR = "base#0";
 
     public static final String MOPM_SAVE = "mopm_save";
+    public static final String MOPM_FOLDER = "mopm_folder";
+    public static final String MOPM_ICON = "mopm_icon";
+    public static final String MOPM_ID = "mopm_id";
+    public static final String MOPM_CACHE = "mopm_cache";
     public static final String MOPM_SAVE_DAT = "mopm_save.dat";
     public static final String MOPM_SSP = "mopm_ssp.dat";
     public static final String MOPM_SMP = "mopm_smp.dat";
+    public static final String MOPM_WORLDS = "mopm_worlds.dat";
+    public static final String MOPM_SUMMARIES = "world_summaries.dat";
+    public static final String JOURNAL_SUFFIX = ".journal";
 }
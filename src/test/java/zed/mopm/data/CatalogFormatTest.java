@@ -0,0 +1,114 @@
+package zed.mopm.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests writing a directory tree as a binary catalog and reading it back.
+ */
+class CatalogFormatTest {
+
+    //-----Fields:--------------------------------------//
+
+    /**
+     * The directory the catalogs are written to.
+     */
+    @TempDir
+    Path tempDir;
+
+    //-----This:----------------------------------------//
+
+    /**
+     * A written catalog reads back with the same folders, folder ids,
+     * nesting and sibling order.
+     * @throws IOException Thrown if the catalog could not be written.
+     */
+    @Test
+    void roundTripKeepsTheTree() throws IOException {
+        final DirectoryTree<String> written = new DirectoryTree<>("base");
+        final DirectoryTree<String> alpha = written.newFolder("alpha");
+        written.newFolder("removed");
+        written.newFolder("beta");
+        alpha.newFolder("nested").newFolder("deeper");
+        written.removeDir(1);
+
+        final File catalog = this.tempDir.resolve("mopm_ssp.dat").toFile();
+        CatalogFormat.write(catalog, written);
+        final DirectoryTree<String> read = new DirectoryTree<>("base");
+        CatalogFormat.read(catalog, read);
+
+        assertTrue(CatalogFormat.isCatalog(catalog));
+        assertSameTree(written, read);
+        assertEquals(written.nextFolderId(), read.nextFolderId());
+    }
+
+    /**
+     * An empty tree writes a catalog that reads back empty.
+     * @throws IOException Thrown if the catalog could not be written.
+     */
+    @Test
+    void roundTripOfAnEmptyTree() throws IOException {
+        final File catalog = this.tempDir.resolve("mopm_smp.dat").toFile();
+        CatalogFormat.write(catalog, new DirectoryTree<String>("base"));
+        final DirectoryTree<String> read = new DirectoryTree<>("base");
+        CatalogFormat.read(catalog, read);
+
+        assertEquals(0, read.folders());
+        assertEquals(CatalogFormat.BASE_FOLDER_ID + 1, read.nextFolderId());
+    }
+
+    /**
+     * A legacy text catalog is not mistaken for a binary one.
+     * @throws IOException Thrown if the file could not be written.
+     */
+    @Test
+    void legacyTextIsNotACatalog() throws IOException {
+        final File legacy = this.tempDir.resolve("mopm_ssp.dat").toFile();
+        Files.write(
+                legacy.toPath(),
+                "base#0\n".getBytes(StandardCharsets.UTF_8)
+        );
+
+        assertFalse(CatalogFormat.isCatalog(legacy));
+        assertThrows(
+                IOException.class,
+                () -> CatalogFormat.read(legacy, new DirectoryTree<>("base"))
+        );
+    }
+
+    /**
+     * Asserts that two directories hold the same folders below them.
+     * @param expected The directory that was written.
+     * @param actual The directory that was read.
+     */
+    private static void assertSameTree(
+            final DirectoryTree<String> expected,
+            final DirectoryTree<String> actual
+    ) {
+        assertEquals(expected.folders(), actual.folders());
+        for (int i = 0; i < expected.folders(); i++) {
+            final DirectoryTree<String> expectedChild = expected.stepDown(i);
+            final DirectoryTree<String> actualChild = actual.stepDown(i);
+            assertEquals(
+                    expectedChild.displayName(),
+                    actualChild.displayName()
+            );
+            assertEquals(
+                    expectedChild.getFolderId(),
+                    actualChild.getFolderId()
+            );
+            assertSameTree(expectedChild, actualChild);
+        }
+    }
+}
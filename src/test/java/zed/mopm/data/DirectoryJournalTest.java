@@ -0,0 +1,223 @@
+package zed.mopm.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import zed.mopm.util.MOPMLiterals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests replaying a directory journal onto a loaded catalog.
+ */
+class DirectoryJournalTest {
+
+    //-----Consts:--------------------------------------//
+
+    /**
+     * Record type of a created folder.
+     */
+    private static final int NEW_FOLDER = 1;
+    /**
+     * Record type of a renamed folder.
+     */
+    private static final int RENAME_DIR = 2;
+    /**
+     * Record type of a removed folder.
+     */
+    private static final int REMOVE_DIR = 3;
+    /**
+     * Record type of a moved folder.
+     */
+    private static final int MOVE_DIR = 4;
+
+    //-----Fields:--------------------------------------//
+
+    /**
+     * The directory the catalog and its journal live in.
+     */
+    @TempDir
+    Path tempDir;
+
+    //-----This:----------------------------------------//
+
+    /**
+     * Every record type is applied in the order it was appended.
+     * @throws IOException Thrown if the journal could not be used.
+     */
+    @Test
+    void replayAppliesEveryRecord() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        newFolder(out, 1, CatalogFormat.BASE_FOLDER_ID, "alpha");
+        newFolder(out, 2, CatalogFormat.BASE_FOLDER_ID, "beta");
+        newFolder(out, 3, CatalogFormat.BASE_FOLDER_ID, "gone");
+        renameDir(out, 2, "renamed");
+        moveDir(out, 2, 1);
+        removeDir(out, 3);
+
+        final DirectoryTree<String> base = this.replay(bytes.toByteArray());
+
+        assertEquals(1, base.folders());
+        final DirectoryTree<String> alpha = base.stepDown(0);
+        assertEquals("alpha", alpha.displayName());
+        assertEquals(1, alpha.folders());
+        assertEquals("renamed", alpha.stepDown(0).displayName());
+        assertEquals(2, alpha.stepDown(0).getFolderId());
+        assertEquals(4, base.nextFolderId());
+    }
+
+    /**
+     * A record cut short by a crash ends the replay without failing it,
+     * and every complete record before it is kept.
+     * @throws IOException Thrown if the journal could not be used.
+     */
+    @Test
+    void replayStopsAtATruncatedTail() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        newFolder(out, 1, CatalogFormat.BASE_FOLDER_ID, "kept");
+        final int complete = bytes.size();
+        newFolder(out, 2, CatalogFormat.BASE_FOLDER_ID, "lost");
+
+        for (int cut = complete + 1; cut < bytes.size(); cut++) {
+            final DirectoryTree<String> base = this.replay(
+                    Arrays.copyOf(bytes.toByteArray(), cut)
+            );
+            assertEquals(1, base.folders());
+            assertEquals("kept", base.stepDown(0).displayName());
+        }
+    }
+
+    /**
+     * Records already folded into the catalog change nothing when they
+     * are replayed again.
+     * @throws IOException Thrown if the journal could not be used.
+     */
+    @Test
+    void replayingFoldedRecordsHasNoEffect() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        newFolder(out, 1, CatalogFormat.BASE_FOLDER_ID, "alpha");
+        removeDir(out, 2);
+        moveDir(out, 1, 1);
+
+        final DirectoryTree<String> written = new DirectoryTree<>("base");
+        written.newFolder("alpha");
+        final File catalog = this.catalog();
+        CatalogFormat.write(catalog, written);
+
+        final DirectoryTree<String> base = this.replay(bytes.toByteArray());
+
+        assertEquals(1, base.folders());
+        assertEquals("alpha", base.stepDown(0).displayName());
+        assertEquals(1, base.stepDown(0).getFolderId());
+    }
+
+    /**
+     * Loads the catalog, or an empty tree if none was written, and
+     * replays a journal onto it.
+     * @param journal The journal bytes.
+     * @return Returns the base directory after the replay.
+     * @throws IOException Thrown if the journal could not be used.
+     */
+    private DirectoryTree<String> replay(final byte[] journal)
+            throws IOException {
+        final File catalog = this.catalog();
+        Files.write(
+                new File(
+                        catalog.getPath() + MOPMLiterals.JOURNAL_SUFFIX
+                ).toPath(),
+                journal
+        );
+
+        final DirectoryTree<String> base = new DirectoryTree<>("base");
+        if (catalog.isFile()) {
+            CatalogFormat.read(catalog, base);
+        }
+        new DirectoryJournal(catalog).replay(base);
+        return base;
+    }
+
+    /**
+     * @return Returns the catalog file the journal belongs to.
+     */
+    private File catalog() {
+        return this.tempDir.resolve("mopm_ssp.dat").toFile();
+    }
+
+    /**
+     * Appends a created folder record.
+     * @param out The journal being built.
+     * @param folderId The id of the folder.
+     * @param parentId The id of the parent folder.
+     * @param name The name of the folder.
+     * @throws IOException Never thrown by an in-memory stream.
+     */
+    private static void newFolder(
+            final DataOutputStream out,
+            final int folderId,
+            final int parentId,
+            final String name
+    ) throws IOException {
+        out.writeByte(NEW_FOLDER);
+        out.writeInt(folderId);
+        out.writeInt(parentId);
+        out.writeUTF(name);
+    }
+
+    /**
+     * Appends a renamed folder record.
+     * @param out The journal being built.
+     * @param folderId The id of the folder.
+     * @param name The new name of the folder.
+     * @throws IOException Never thrown by an in-memory stream.
+     */
+    private static void renameDir(
+            final DataOutputStream out,
+            final int folderId,
+            final String name
+    ) throws IOException {
+        out.writeByte(RENAME_DIR);
+        out.writeInt(folderId);
+        out.writeUTF(name);
+    }
+
+    /**
+     * Appends a moved folder record.
+     * @param out The journal being built.
+     * @param folderId The id of the folder.
+     * @param parentId The id of the new parent folder.
+     * @throws IOException Never thrown by an in-memory stream.
+     */
+    private static void moveDir(
+            final DataOutputStream out,
+            final int folderId,
+            final int parentId
+    ) throws IOException {
+        out.writeByte(MOVE_DIR);
+        out.writeInt(folderId);
+        out.writeInt(parentId);
+    }
+
+    /**
+     * Appends a removed folder record.
+     * @param out The journal being built.
+     * @param folderId The id of the folder.
+     * @throws IOException Never thrown by an in-memory stream.
+     */
+    private static void removeDir(
+            final DataOutputStream out,
+            final int folderId
+    ) throws IOException {
+        out.writeByte(REMOVE_DIR);
+        out.writeInt(folderId);
+    }
+}
@@ -0,0 +1,236 @@
+package zed.mopm.data;
+
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares {@link LevelSummaryReader} with
+ * {@link CompressedStreamTools#readCompressed(InputStream)} on a large,
+ * modded level.dat. The Data compound holds a full player, long generator
+ * settings and a large block of mod data, and the root holds a registry
+ * dump the size of a modpack's. Both readers run on the same file after a
+ * warm-up, and the average time of each is printed.
+ */
+class LevelSummaryReaderBenchmarkTest {
+
+    //-----Consts:--------------------------------------//
+
+    /**
+     * The tags a world summary is built from.
+     */
+    private static final Set<String> WANTED = new HashSet<>(
+            Arrays.asList(
+                    "LevelName", "LastPlayed", "GameType", "hardcore",
+                    "allowCommands", "Version", "SizeOnDisk"
+            )
+    );
+    /**
+     * The number of reads made before timing.
+     */
+    private static final int WARMUP_READS = 20;
+    /**
+     * The number of reads that are timed.
+     */
+    private static final int TIMED_READS = 50;
+    /**
+     * The number of item stacks in the player's inventory and ender chest.
+     */
+    private static final int PLAYER_ITEMS = 64;
+    /**
+     * The number of enchantments on every item stack.
+     */
+    private static final int ENCHANTMENTS = 4;
+    /**
+     * The number of mod data entries in the Data compound.
+     */
+    private static final int MOD_ENTRIES = 20000;
+    /**
+     * The number of registry entries in the root FML compound.
+     */
+    private static final int REGISTRY_ENTRIES = 40000;
+    /**
+     * The length of the generator settings string.
+     */
+    private static final int GENERATOR_OPTIONS_LENGTH = 30000;
+    /**
+     * The number of nanoseconds in a microsecond.
+     */
+    private static final double NANOS_PER_MICRO = 1000.0D;
+
+    //-----Fields:--------------------------------------//
+
+    /**
+     * The directory the level.dat is written to.
+     */
+    @TempDir
+    Path tempDir;
+
+    //-----This:----------------------------------------//
+
+    /**
+     * Times both readers and checks that they agree on every summary tag.
+     * @throws IOException Thrown if the level.dat could not be used.
+     */
+    @Test
+    void compareWithReadCompressed() throws IOException {
+        final File levelDat = this.writeLargeLevel();
+
+        for (int i = 0; i < WARMUP_READS; i++) {
+            LevelSummaryReader.read(levelDat, WANTED);
+            readCompressed(levelDat);
+        }
+
+        NBTTagCompound summary = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < TIMED_READS; i++) {
+            summary = LevelSummaryReader.read(levelDat, WANTED);
+        }
+        final long streamingNanos = System.nanoTime() - start;
+
+        NBTTagCompound full = null;
+        start = System.nanoTime();
+        for (int i = 0; i < TIMED_READS; i++) {
+            full = readCompressed(levelDat);
+        }
+        final long fullNanos = System.nanoTime() - start;
+
+        System.out.printf(
+                "level.dat of %d bytes: LevelSummaryReader %.1f us, "
+                        + "readCompressed %.1f us per read%n",
+                levelDat.length(),
+                streamingNanos / NANOS_PER_MICRO / TIMED_READS,
+                fullNanos / NANOS_PER_MICRO / TIMED_READS
+        );
+
+        final NBTTagCompound data = full.getCompoundTag("Data");
+        assertEquals(WANTED.size(), summary.getSize());
+        for (final String tag : WANTED) {
+            assertEquals(data.getTag(tag), summary.getTag(tag), tag);
+        }
+    }
+
+    /**
+     * Reads the whole level.dat the way vanilla does.
+     * @param levelDat The level.dat.
+     * @return Returns the root compound.
+     * @throws IOException Thrown if the level.dat could not be read.
+     */
+    private static NBTTagCompound readCompressed(final File levelDat)
+            throws IOException {
+        try (InputStream in = new FileInputStream(levelDat)) {
+            return CompressedStreamTools.readCompressed(in);
+        }
+    }
+
+    /**
+     * Writes a level.dat shaped like one from a large modpack.
+     * @return Returns the written level.dat.
+     * @throws IOException Thrown if the level.dat could not be written.
+     */
+    private File writeLargeLevel() throws IOException {
+        final NBTTagCompound data = new NBTTagCompound();
+        data.setTag("Player", player());
+        final StringBuilder options = new StringBuilder();
+        while (options.length() < GENERATOR_OPTIONS_LENGTH) {
+            options.append("{\"biome\":\"minecraft:plains\",\"size\":4},");
+        }
+        data.setString("generatorOptions", options.toString());
+        final NBTTagCompound modData = new NBTTagCompound();
+        for (int i = 0; i < MOD_ENTRIES; i++) {
+            final NBTTagCompound entry = new NBTTagCompound();
+            entry.setLong("seed", i * 31L);
+            entry.setIntArray("chunk", new int[] {i, -i, i * 2});
+            entry.setString("owner", "mod" + (i % 100));
+            modData.setTag("entry" + i, entry);
+        }
+        data.setTag("ForgeCaps", modData);
+
+        data.setString("LevelName", "Large Modded World");
+        data.setLong("LastPlayed", 1538000000000L);
+        data.setInteger("GameType", 0);
+        data.setBoolean("hardcore", false);
+        data.setBoolean("allowCommands", true);
+        data.setLong("SizeOnDisk", 0L);
+        final NBTTagCompound version = new NBTTagCompound();
+        version.setString("Name", "1.12.2");
+        version.setInteger("Id", 1343);
+        version.setByte("Snapshot", (byte) 0);
+        data.setTag("Version", version);
+
+        final NBTTagList registry = new NBTTagList();
+        for (int i = 0; i < REGISTRY_ENTRIES; i++) {
+            final NBTTagCompound entry = new NBTTagCompound();
+            entry.setString("K", "somemod:block_" + i);
+            entry.setInteger("V", i);
+            registry.appendTag(entry);
+        }
+        final NBTTagCompound fml = new NBTTagCompound();
+        fml.setTag("ItemData", registry);
+
+        final NBTTagCompound root = new NBTTagCompound();
+        root.setTag("FML", fml);
+        root.setTag("Data", data);
+        final File levelDat = this.tempDir.resolve("level.dat").toFile();
+        try (OutputStream out = new FileOutputStream(levelDat)) {
+            CompressedStreamTools.writeCompressed(root, out);
+        }
+        return levelDat;
+    }
+
+    /**
+     * @return Returns a player with full inventories.
+     */
+    private static NBTTagCompound player() {
+        final NBTTagCompound player = new NBTTagCompound();
+        final NBTTagList inventory = new NBTTagList();
+        final NBTTagList enderItems = new NBTTagList();
+        for (int i = 0; i < PLAYER_ITEMS; i++) {
+            inventory.appendTag(item(i));
+            enderItems.appendTag(item(i));
+        }
+        player.setTag("Inventory", inventory);
+        player.setTag("EnderItems", enderItems);
+        player.setFloat("Health", 20.0F);
+        player.setIntArray("Attributes", new int[PLAYER_ITEMS]);
+        return player;
+    }
+
+    /**
+     * @param slot The inventory slot.
+     * @return Returns an enchanted item stack with custom NBT.
+     */
+    private static NBTTagCompound item(final int slot) {
+        final NBTTagCompound item = new NBTTagCompound();
+        item.setByte("Slot", (byte) slot);
+        item.setString("id", "somemod:tool_" + slot);
+        item.setByte("Count", (byte) 1);
+        final NBTTagCompound tag = new NBTTagCompound();
+        final NBTTagList enchantments = new NBTTagList();
+        for (int i = 0; i < ENCHANTMENTS; i++) {
+            final NBTTagCompound enchantment = new NBTTagCompound();
+            enchantment.setShort("id", (short) i);
+            enchantment.setShort("lvl", (short) 5);
+            enchantments.appendTag(enchantment);
+        }
+        tag.setTag("ench", enchantments);
+        tag.setByteArray("modState", new byte[256]);
+        item.setTag("tag", tag);
+        return item;
+    }
+}
@@ -0,0 +1,146 @@
+package zed.mopm.data;
+
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagIntArray;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.nbt.NBTTagString;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests reading summary tags out of a gzip compressed level.dat.
+ */
+class LevelSummaryReaderTest {
+
+    //-----Consts:--------------------------------------//
+
+    /**
+     * The tags a world summary is built from.
+     */
+    private static final Set<String> WANTED = new HashSet<>(
+            Arrays.asList("LevelName", "LastPlayed", "GameType", "Version")
+    );
+
+    //-----Fields:--------------------------------------//
+
+    /**
+     * The directory the level.dat files are written to.
+     */
+    @TempDir
+    Path tempDir;
+
+    //-----This:----------------------------------------//
+
+    /**
+     * The wanted tags are read, including a nested compound, while the
+     * player, lists and arrays around them are skipped.
+     * @throws IOException Thrown if the level.dat could not be used.
+     */
+    @Test
+    void readsWantedTagsAndSkipsTheRest() throws IOException {
+        final NBTTagCompound data = new NBTTagCompound();
+        final NBTTagCompound player = new NBTTagCompound();
+        player.setTag("Inventory", new NBTTagList());
+        player.setFloat("Health", 20.0F);
+        data.setTag("Player", player);
+        data.setString("LevelName", "Test World");
+        data.setByteArray("Unused", new byte[] {1, 2, 3});
+        final NBTTagList rules = new NBTTagList();
+        rules.appendTag(new NBTTagString("doDaylightCycle"));
+        data.setTag("Rules", rules);
+        data.setTag("Border", new NBTTagIntArray(new int[] {4, 5}));
+        data.setLong("LastPlayed", 1234567890123L);
+        data.setInteger("GameType", 1);
+        final NBTTagCompound version = new NBTTagCompound();
+        version.setString("Name", "1.12.2");
+        version.setInteger("Id", 1343);
+        data.setTag("Version", version);
+        data.setDouble("BorderSize", 60000000.0D);
+
+        final NBTTagCompound found = LevelSummaryReader.read(
+                this.writeLevel(data),
+                WANTED
+        );
+
+        assertEquals(WANTED.size(), found.getSize());
+        assertEquals("Test World", found.getString("LevelName"));
+        assertEquals(1234567890123L, found.getLong("LastPlayed"));
+        assertEquals(1, found.getInteger("GameType"));
+        assertEquals(
+                "1.12.2",
+                found.getCompoundTag("Version").getString("Name")
+        );
+        assertEquals(1343, found.getCompoundTag("Version").getInteger("Id"));
+        assertFalse(found.hasKey("Player"));
+        assertFalse(found.hasKey("BorderSize"));
+    }
+
+    /**
+     * Missing tags are left out instead of failing the read.
+     * @throws IOException Thrown if the level.dat could not be used.
+     */
+    @Test
+    void leavesOutMissingTags() throws IOException {
+        final NBTTagCompound data = new NBTTagCompound();
+        data.setString("LevelName", "Old World");
+
+        final NBTTagCompound found = LevelSummaryReader.read(
+                this.writeLevel(data),
+                WANTED
+        );
+
+        assertEquals(1, found.getSize());
+        assertEquals("Old World", found.getString("LevelName"));
+    }
+
+    /**
+     * A level.dat without a Data compound is rejected.
+     * @throws IOException Thrown if the level.dat could not be written.
+     */
+    @Test
+    void rejectsALevelWithoutData() throws IOException {
+        final File levelDat = this.tempDir.resolve("level.dat").toFile();
+        final NBTTagCompound root = new NBTTagCompound();
+        root.setString("Other", "value");
+        try (OutputStream out = new FileOutputStream(levelDat)) {
+            CompressedStreamTools.writeCompressed(root, out);
+        }
+
+        assertThrows(
+                IOException.class,
+                () -> LevelSummaryReader.read(levelDat, WANTED)
+        );
+    }
+
+    /**
+     * Writes a level.dat the way the game does, with a tag before the
+     * Data compound that has to be skipped.
+     * @param data The Data compound.
+     * @return Returns the written level.dat.
+     * @throws IOException Thrown if the level.dat could not be written.
+     */
+    private File writeLevel(final NBTTagCompound data) throws IOException {
+        final File levelDat = this.tempDir.resolve("level.dat").toFile();
+        final NBTTagCompound root = new NBTTagCompound();
+        root.setTag("FML", new NBTTagCompound());
+        root.setTag("Data", data);
+        try (OutputStream out = new FileOutputStream(levelDat)) {
+            CompressedStreamTools.writeCompressed(root, out);
+        }
+        return levelDat;
+    }
+}
@@ -0,0 +1,137 @@
+package zed.mopm.gui.utils;
+
+import com.sun.management.ThreadMXBean;
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.lwjgl.opengl.GL11.GL_QUADS;
+
+/**
+ * Tests that the rect vertices of {@link GuiUtils} are emitted without
+ * allocating. The allocated bytes of the test thread are read with
+ * {@link ThreadMXBean} around a large number of calls, after enough calls
+ * to let the buffer reach its size and the JIT compile the code.
+ */
+class GuiUtilsTest {
+
+    //-----Consts:--------------------------------------//
+
+    /**
+     * The number of calls made before measuring.
+     */
+    private static final int WARMUP_CALLS = 20000;
+    /**
+     * The number of calls that are measured.
+     */
+    private static final int MEASURED_CALLS = 100000;
+    /**
+     * The size of the vertex buffer in ints, enough for one quad.
+     */
+    private static final int BUFFER_SIZE = 1024;
+
+    //-----Fields:--------------------------------------//
+
+    /**
+     * Reads the bytes allocated by the test thread.
+     */
+    private ThreadMXBean threads;
+    /**
+     * The buffer the vertices are written to. It is never drawn, so no
+     * GL context is needed.
+     */
+    private final BufferBuilder buffer = new BufferBuilder(BUFFER_SIZE);
+
+    //-----This:----------------------------------------//
+
+    /**
+     * Turns on allocation counting, or skips the test on a JVM without it.
+     */
+    @BeforeEach
+    void enableAllocationCounting() {
+        assumeTrue(
+                ManagementFactory.getThreadMXBean() instanceof ThreadMXBean
+        );
+        this.threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(this.threads.isThreadAllocatedMemorySupported());
+        this.threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    /**
+     * A gradient rect allocates zero bytes per call.
+     */
+    @Test
+    void gradientRectDoesNotAllocate() {
+        this.gradientRects(WARMUP_CALLS);
+        final long before = this.allocatedBytes();
+        this.gradientRects(MEASURED_CALLS);
+        final long allocated = this.allocatedBytes() - before;
+
+        assertEquals(0L, allocated / MEASURED_CALLS, "bytes per call");
+    }
+
+    /**
+     * A textured rect allocates zero bytes per call.
+     */
+    @Test
+    void texturedRectDoesNotAllocate() {
+        this.texturedRects(WARMUP_CALLS);
+        final long before = this.allocatedBytes();
+        this.texturedRects(MEASURED_CALLS);
+        final long allocated = this.allocatedBytes() - before;
+
+        assertEquals(0L, allocated / MEASURED_CALLS, "bytes per call");
+    }
+
+    /**
+     * Emits gradient rects, alternating between both orientations.
+     * @param calls The number of rects to emit.
+     */
+    private void gradientRects(final int calls) {
+        for (int i = 0; i < calls; i++) {
+            this.buffer.begin(GL_QUADS, DefaultVertexFormats.POSITION_COLOR);
+            GuiUtils.addGradientRect(
+                    this.buffer,
+                    i, 0, i + 10, 20,
+                    0xFF102030, 0x80405060,
+                    0.0F,
+                    (i & 1) == 0
+            );
+            this.buffer.finishDrawing();
+        }
+    }
+
+    /**
+     * Emits textured rects.
+     * @param calls The number of rects to emit.
+     */
+    private void texturedRects(final int calls) {
+        for (int i = 0; i < calls; i++) {
+            this.buffer.begin(
+                    GL_QUADS,
+                    DefaultVertexFormats.POSITION_TEX_COLOR
+            );
+            GuiUtils.addTexturedRect(
+                    this.buffer,
+                    0.0D, i, 100.0D, i + 20.0D, 0.0D,
+                    64, 64, 64, 255,
+                    i & 1
+            );
+            this.buffer.finishDrawing();
+        }
+    }
+
+    /**
+     * @return Returns the bytes allocated by the test thread so far.
+     */
+    private long allocatedBytes() {
+        return this.threads.getThreadAllocatedBytes(
+                Thread.currentThread().getId()
+        );
+    }
+}